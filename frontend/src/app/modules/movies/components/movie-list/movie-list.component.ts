@@ -1,12 +1,15 @@
-import { Component, OnInit } from '@angular/core';
-import { MovieService, Movie, PageResponse } from '../../../../services/movie.service';
+import { Component, OnDestroy, OnInit } from '@angular/core';
+import { Router } from '@angular/router';
+import { Subject, Subscription, of } from 'rxjs';
+import { debounceTime, distinctUntilChanged, switchMap } from 'rxjs/operators';
+import { MovieService, Movie, MovieBrowseResponse, MovieSuggestion, PageResponse } from '../../../../services/movie.service';
 
 @Component({
   selector: 'app-movie-list',
   templateUrl: './movie-list.component.html',
   styleUrls: ['./movie-list.component.css']
 })
-export class MovieListComponent implements OnInit {
+export class MovieListComponent implements OnInit, OnDestroy {
   movies: Movie[] = [];
   totalItems = 0;
   currentPage = 0;
@@ -14,17 +17,64 @@ export class MovieListComponent implements OnInit {
   sortBy = 'id';
   sortDirection = 'asc';
   searchTerm = '';
+  suggestions: MovieSuggestion[] = [];
+  // Facets offered as filters, with the values selected in each and the server's
+  // count of matching movies per value
+  readonly filterFacets = ['genre', 'decade', 'language', 'rated'];
+  readonly facetLabels: { [facet: string]: string } = { genre: 'Genre', decade: 'Decade', language: 'Language', rated: 'Rated' };
+  readonly maxFacetValues = 8;
+  filters: { [facet: string]: string[] } = {};
+  facets: { [facet: string]: { [value: string]: number } } = {};
   loading = false;
   error = '';
   Math = Math; // For use in template
 
-  constructor(private movieService: MovieService) { }
+  // Typed search text; suggestions are looked up once typing pauses
+  private searchInput = new Subject<string>();
+  private suggestionSubscription?: Subscription;
+
+  constructor(
+    private movieService: MovieService,
+    private router: Router
+  ) { }
 
   ngOnInit(): void {
+    this.suggestionSubscription = this.searchInput
+      .pipe(
+        debounceTime(200),
+        distinctUntilChanged(),
+        switchMap(text => text.trim().length < 2 ? of([]) : this.movieService.autocomplete(text.trim(), 8))
+      )
+      .subscribe(suggestions => this.suggestions = suggestions);
     this.loadMovies();
+    this.loadFacets();
+  }
+
+  ngOnDestroy(): void {
+    this.suggestionSubscription?.unsubscribe();
+  }
+
+  onSearchInput(text: string): void {
+    this.searchInput.next(text);
+  }
+
+  selectSuggestion(suggestion: MovieSuggestion): void {
+    this.clearSuggestions();
+    this.router.navigate(['/movies', suggestion.movieId]);
+  }
+
+  clearSuggestions(): void {
+    this.suggestions = [];
+    // Drops a lookup still waiting on the debounce
+    this.searchInput.next('');
   }
 
   loadMovies(): void {
+    if (this.hasFilters()) {
+      this.browse();
+      return;
+    }
+
     this.loading = true;
     this.error = '';
     this.movieService.getAllMovies(this.currentPage, this.pageSize, this.sortBy, this.sortDirection)
@@ -43,10 +93,17 @@ export class MovieListComponent implements OnInit {
   }
 
   search(): void {
+    this.clearSuggestions();
     if (!this.searchTerm.trim()) {
       this.loadMovies();
       return;
     }
+    // A text search runs over the whole catalog, not the filtered movies
+    if (this.hasFilters()) {
+      this.filters = {};
+      this.currentPage = 0;
+      this.loadFacets();
+    }
     
     this.loading = true;
     this.error = '';
@@ -65,6 +122,81 @@ export class MovieListComponent implements OnInit {
       });
   }
 
+  // Counts for every facet value over the whole catalog, shown before any filter is picked
+  loadFacets(): void {
+    this.movieService.browseMovies({}, 0, 1)
+      .subscribe({
+        next: (response: MovieBrowseResponse) => this.facets = response.facets,
+        error: (err) => console.error('Error loading movie filters', err)
+      });
+  }
+
+  // Filtered movies and the facet counts that go with them, paged by the server
+  browse(): void {
+    this.loading = true;
+    this.error = '';
+    this.movieService.browseMovies(this.filters, this.currentPage, this.pageSize)
+      .subscribe({
+        next: (response: MovieBrowseResponse) => {
+          this.movies = response.movies;
+          this.totalItems = response.total;
+          this.facets = response.facets;
+          this.loading = false;
+        },
+        error: (err) => {
+          console.error('Error browsing movies', err);
+          this.error = 'Failed to filter movies. Please try again later.';
+          this.loading = false;
+        }
+      });
+  }
+
+  hasFilters(): boolean {
+    return Object.keys(this.filters).length > 0;
+  }
+
+  isSelected(facet: string, value: string): boolean {
+    return (this.filters[facet] || []).includes(value);
+  }
+
+  toggleFilter(facet: string, value: string): void {
+    const selected = this.filters[facet] || [];
+    const next = selected.includes(value) ? selected.filter(v => v !== value) : [...selected, value];
+    this.filters = { ...this.filters, [facet]: next };
+    if (next.length === 0) {
+      delete this.filters[facet];
+    }
+    this.searchTerm = '';
+    this.currentPage = 0;
+    if (this.hasFilters()) {
+      this.browse();
+    } else {
+      this.loadMovies();
+      this.loadFacets();
+    }
+  }
+
+  clearFilters(): void {
+    this.filters = {};
+    this.currentPage = 0;
+    this.loadMovies();
+    this.loadFacets();
+  }
+
+  // The most common values of a facet in the server's order, plus any selected ones
+  facetValues(facet: string): { value: string, count: number }[] {
+    const counts = this.facets[facet] || {};
+    const values = Object.keys(counts)
+      .slice(0, this.maxFacetValues)
+      .map(value => ({ value, count: counts[value] }));
+    for (const value of this.filters[facet] || []) {
+      if (!values.some(v => v.value === value)) {
+        values.push({ value, count: counts[value] || 0 });
+      }
+    }
+    return values;
+  }
+
   onPageChange(page: number): void {
     if (page < 0 || page >= Math.ceil(this.totalItems / this.pageSize)) {
       return;
@@ -78,6 +210,7 @@ export class MovieListComponent implements OnInit {
     }
   }
 
+  // The server returns filtered movies in catalog order, so sorting only applies without filters
   onSortChange(sortBy: string): void {
     if (this.sortBy === sortBy) {
       this.sortDirection = this.sortDirection === 'asc' ? 'desc' : 'asc';
@@ -73,6 +73,30 @@ export interface OmdbResponse {
   Error?: string;
 }
 
+export interface MovieImportResult {
+  imdbId: string;
+  status: 'ADDED' | 'EXISTING' | 'FAILED';
+  movie?: Movie;
+  error?: string;
+}
+
+export interface MovieSuggestion {
+  movieId: number;
+  title: string;
+  year?: number;
+  ratingCount: number;
+}
+
+export interface MovieBrowseResponse {
+  filters: { [facet: string]: string[] };
+  page: number;
+  size: number;
+  total: number;
+  movies: Movie[];
+  facets: { [facet: string]: { [value: string]: number } };
+  tookMicros: number;
+}
+
 export interface PageResponse<T> {
   content: T[];
   pageable: {
@@ -309,6 +333,40 @@ export class MovieService {
     };
   }
 
+  // Typeahead suggestions for the search box; cheap enough to call on every keystroke
+  autocomplete(prefix: string, limit: number = 10): Observable<MovieSuggestion[]> {
+    let params = new HttpParams()
+      .set('prefix', prefix)
+      .set('limit', limit.toString());
+    
+    return this.http.get<MovieSuggestion[]>(`${this.apiUrl}/autocomplete`, { params })
+      .pipe(
+        catchError(err => {
+          console.error('Error getting title suggestions:', err);
+          return of([]);
+        })
+      );
+  }
+
+  browseMovies(filters: { [facet: string]: string[] }, page: number = 0, size: number = 10): Observable<MovieBrowseResponse> {
+    let params = new HttpParams()
+      .set('page', page.toString())
+      .set('size', size.toString());
+    for (const facet of Object.keys(filters)) {
+      for (const value of filters[facet]) {
+        params = params.append(facet, value);
+      }
+    }
+    
+    return this.http.get<MovieBrowseResponse>(`${this.apiUrl}/browse`, { params })
+      .pipe(
+        catchError(err => {
+          console.error('Error browsing movies:', err);
+          return throwError(() => err);
+        })
+      );
+  }
+
   getMovieById(id: number): Observable<Movie> {
     return this.http.get<Movie>(`${this.apiUrl}/${id}`)
       .pipe(
@@ -615,8 +673,8 @@ export class MovieService {
       );
   }
 
-  addMoviesBatch(imdbIds: string[]): Observable<Movie[]> {
-    return this.http.post<Movie[]>(`${this.adminApiUrl}/movies/batch`, imdbIds)
+  addMoviesBatch(imdbIds: string[]): Observable<MovieImportResult[]> {
+    return this.http.post<MovieImportResult[]>(`${this.adminApiUrl}/movies/batch`, imdbIds)
       .pipe(
         catchError(this.handleError)
       );
@@ -1,27 +1,62 @@
 // OMDB API Configuration
 package com.example.moviecatalog.config;
 
+import io.netty.channel.ChannelOption;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.util.UriComponentsBuilder;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
-import java.net.URI;
+import java.time.Duration;
 
 @Configuration
 public class OmdbApiConfig {
-    @Value("${omdb.api.key}")
-    private String apiKey;
-
     @Value("${omdb.api.base-url}")
     private String baseUrl;
 
+    @Value("${omdb.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${omdb.http.max-idle-time-ms:30000}")
+    private long maxIdleTimeMs;
+
+    @Value("${omdb.http.pending-acquire-max-count:2000}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${omdb.http.pending-acquire-timeout-ms:5000}")
+    private long pendingAcquireTimeoutMs;
+
+    @Value("${omdb.http.connect-timeout-ms:3000}")
+    private int connectTimeoutMs;
+
+    @Value("${omdb.http.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+
+    // Keep-alive connection pool shared by every OMDB request
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider omdbConnectionProvider() {
+        return ConnectionProvider.builder("omdb")
+                .maxConnections(maxConnections)
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .evictInBackground(Duration.ofMillis(maxIdleTimeMs))
+                .build();
+    }
+
     @Bean
-    public WebClient omdbWebClient() {
+    public WebClient omdbWebClient(ConnectionProvider omdbConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(omdbConnectionProvider)
+                .keepAlive(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(readTimeoutMs));
+
         return WebClient.builder()
-                .baseUrl(baseUrl + "?apikey=" + apiKey)
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+// Scheduling Configuration for background tasks
+package com.example.moviecatalog.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // Enables @Scheduled tasks such as the OMDB health probe; the scheduler's
+    // pool size is spring.task.scheduling.pool.size in application.properties
+}
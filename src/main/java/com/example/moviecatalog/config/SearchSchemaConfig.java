@@ -0,0 +1,24 @@
+package com.example.moviecatalog.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+
+// Search columns and indexes that JPA mappings cannot express (generated tsvector, GIN, pg_trgm).
+// Runs at startup after Hibernate's schema update, so the tables exist; scripts are idempotent.
+@Configuration
+public class SearchSchemaConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "movies.search.schema-init", havingValue = "true", matchIfMissing = true)
+    public ApplicationRunner searchSchemaInitializer(DataSource dataSource,
+            @Value("${movies.search.schema-scripts:classpath:db/movie-search.sql,classpath:db/movie-trigram.sql}") Resource[] scripts) {
+        return args -> new ResourceDatabasePopulator(scripts).execute(dataSource);
+    }
+}
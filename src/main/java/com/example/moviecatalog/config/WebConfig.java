@@ -1,9 +1,13 @@
 package com.example.moviecatalog.config;
 
+import com.example.moviecatalog.service.MovieSearchMode;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.Locale;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
@@ -15,4 +19,11 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedHeaders("*")
                 .allowCredentials(true);
     }
+
+    // Lets query parameters use lower-case names, e.g. ?mode=fulltext
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(String.class, MovieSearchMode.class,
+                source -> MovieSearchMode.valueOf(source.trim().toUpperCase(Locale.ROOT)));
+    }
 } 
\ No newline at end of file
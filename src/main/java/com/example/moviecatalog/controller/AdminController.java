@@ -1,24 +1,42 @@
 package com.example.moviecatalog.controller;
 
+import com.example.moviecatalog.model.ImportJob;
 import com.example.moviecatalog.model.Movie;
+import com.example.moviecatalog.model.MovieBatchItem;
+import com.example.moviecatalog.model.MovieImportResult;
 import com.example.moviecatalog.model.OmdbResponse;
 import com.example.moviecatalog.model.User;
 import com.example.moviecatalog.repository.UserRepository;
+import com.example.moviecatalog.service.ImportJobService;
+import com.example.moviecatalog.service.MovieAutocompleteIndex;
+import com.example.moviecatalog.service.MovieFacetIndex;
+import com.example.moviecatalog.service.MovieFileImportService;
+import com.example.moviecatalog.service.MovieSearchIndex;
 import com.example.moviecatalog.service.MovieService;
 import com.example.moviecatalog.service.OmdbApiService;
+import com.example.moviecatalog.service.ReactiveOmdbApiService;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -29,11 +47,32 @@ public class AdminController {
     @Autowired
     private OmdbApiService omdbApiService;
     
+    @Autowired
+    private ReactiveOmdbApiService reactiveOmdbApiService;
+    
     @Autowired
     private MovieService movieService;
     
+    @Autowired
+    private ImportJobService importJobService;
+    
+    @Autowired
+    private MovieFileImportService movieFileImportService;
+    
+    @Autowired
+    private MovieSearchIndex movieSearchIndex;
+    
+    @Autowired
+    private MovieAutocompleteIndex movieAutocompleteIndex;
+    
+    @Autowired
+    private MovieFacetIndex movieFacetIndex;
+    
     @Autowired
     private UserRepository userRepository;
+    
+    @Value("${omdb.search.max-pages:10}")
+    private int defaultSearchPages;
 
     // Search OMDB API for movies
     @GetMapping("/omdb/search")
@@ -63,6 +102,135 @@ public class AdminController {
         }
     }
     
+    // OMDB cache statistics (hits, misses, evictions) used to size the cache
+    @GetMapping("/omdb/cache/stats")
+    public ResponseEntity<?> getOmdbCacheStats() {
+        return ResponseEntity.ok(omdbApiService.getCacheStats());
+    }
+    
+    // OMDB request coalescing statistics (requests, upstream calls, collapsed)
+    @GetMapping("/omdb/coalescing/stats")
+    public ResponseEntity<?> getOmdbCoalescingStats() {
+        return ResponseEntity.ok(omdbApiService.getCoalescingStats());
+    }
+    
+    // OMDB quota usage per priority lane
+    @GetMapping("/omdb/quota/stats")
+    public ResponseEntity<?> getOmdbQuotaStats() {
+        return ResponseEntity.ok(omdbApiService.getQuotaStats());
+    }
+    
+    // OMDB request hedging statistics (delay, hedges sent, hedge wins)
+    @GetMapping("/omdb/hedging/stats")
+    public ResponseEntity<?> getOmdbHedgingStats() {
+        return ResponseEntity.ok(omdbApiService.getHedgingStats());
+    }
+    
+    // On-disk OMDB response store statistics (entries, file size, hits)
+    @GetMapping("/omdb/store/stats")
+    public ResponseEntity<?> getOmdbStoreStats() {
+        return ResponseEntity.ok(omdbApiService.getStoreStats());
+    }
+    
+    // In-memory search index statistics (movies, terms, postings, last build time)
+    @GetMapping("/search-index/stats")
+    public ResponseEntity<?> getSearchIndexStats() {
+        return ResponseEntity.ok(movieSearchIndex.getStats());
+    }
+    
+    // Rebuilds the in-memory search index from the database; searches keep working meanwhile
+    @PostMapping("/search-index/rebuild")
+    public ResponseEntity<?> rebuildSearchIndex() {
+        try {
+            return ResponseEntity.ok(movieSearchIndex.rebuild());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to rebuild search index: " + e.getMessage()));
+        }
+    }
+    
+    // Autocomplete index statistics (titles, buffered titles, merges, last build time)
+    @GetMapping("/autocomplete/stats")
+    public ResponseEntity<?> getAutocompleteStats() {
+        return ResponseEntity.ok(movieAutocompleteIndex.getStats());
+    }
+    
+    // Rebuilds the autocomplete index from the database; suggestions keep working meanwhile
+    @PostMapping("/autocomplete/rebuild")
+    public ResponseEntity<?> rebuildAutocomplete() {
+        try {
+            return ResponseEntity.ok(movieAutocompleteIndex.rebuild());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to rebuild autocomplete index: " + e.getMessage()));
+        }
+    }
+    
+    // Facet index statistics (movies, distinct values per facet, bitmap memory, last build time)
+    @GetMapping("/facets/stats")
+    public ResponseEntity<?> getFacetStats() {
+        return ResponseEntity.ok(movieFacetIndex.getStats());
+    }
+    
+    // Rebuilds the facet bitmaps from the database; browsing keeps working meanwhile
+    @PostMapping("/facets/rebuild")
+    public ResponseEntity<?> rebuildFacets() {
+        try {
+            return ResponseEntity.ok(movieFacetIndex.rebuild());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to rebuild facet index: " + e.getMessage()));
+        }
+    }
+    
+    // Non-blocking OMDB search; no servlet thread is held while OMDB responds
+    @GetMapping("/omdb/reactive/search")
+    public Mono<ResponseEntity<?>> searchOmdbReactive(@RequestParam String title, @RequestParam(defaultValue = "1") int page) {
+        logger.info("reactive searching OMDB for title: '{}' (page: {})", title, page);
+        return reactiveOmdbApiService.searchMovies(title, page)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(e -> {
+                    logger.error("Error searching OMDB: {}", e.getMessage(), e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(Map.of("error", "Failed to search OMDB: " + e.getMessage())));
+                });
+    }
+    
+    // One page of OMDB search results with full details for every hit
+    @GetMapping("/omdb/search/enriched")
+    public Mono<ResponseEntity<?>> searchOmdbEnriched(@RequestParam String title, @RequestParam(defaultValue = "1") int page) {
+        logger.info("enriched searching OMDB for title: '{}' (page: {})", title, page);
+        return reactiveOmdbApiService.searchMoviesEnriched(title, page)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(e -> {
+                    logger.error("Error in enriched OMDB search: {}", e.getMessage(), e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(Map.of("error", "Failed to search OMDB: " + e.getMessage())));
+                });
+    }
+    
+    // All pages of an OMDB search, streamed as NDJSON while the pages arrive
+    @GetMapping(value = "/omdb/search/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<OmdbResponse> searchOmdbAllPages(@RequestParam String title, @RequestParam(required = false) Integer pages) {
+        int maxPages = pages != null ? pages : defaultSearchPages;
+        logger.info("searching all OMDB pages for title: '{}' (max pages: {})", title, maxPages);
+        return reactiveOmdbApiService.searchMoviesAllPages(title, maxPages)
+                .doOnError(e -> logger.error("Error searching OMDB pages: {}", e.getMessage(), e));
+    }
+    
+    // Non-blocking OMDB details lookup
+    @GetMapping("/omdb/reactive/details/{imdbId}")
+    public Mono<ResponseEntity<?>> getOmdbDetailsReactive(@PathVariable String imdbId) {
+        logger.info("reactive getting OMDB details for IMDB ID: {}", imdbId);
+        return reactiveOmdbApiService.getMovieDetails(imdbId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(e -> {
+                    logger.error("Error getting OMDB details: {}", e.getMessage(), e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(Map.of("error", "Failed to get movie details: " + e.getMessage())));
+                });
+    }
+    
     // Add a movie to the database
     @PostMapping("/movies")
     public ResponseEntity<?> addMovie(@RequestBody Map<String, String> request) {
@@ -103,8 +271,8 @@ public class AdminController {
             User admin = userRepository.findByUsername(username)
                     .orElseThrow(() -> new RuntimeException("User not found"));
             
-            List<Movie> movies = movieService.addMovies(imdbIds, admin);
-            return ResponseEntity.ok(movies);
+            List<MovieImportResult> results = movieService.addMovies(imdbIds, admin);
+            return ResponseEntity.ok(results);
         } catch (Exception e) {
             logger.error("Error adding movies in batch: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -112,6 +280,118 @@ public class AdminController {
         }
     }
     
+    // Import a catalog file uploaded as multipart form data (field "file"):
+    // CSV of IMDB IDs and/or NDJSON OMDB records, read line by line
+    @PostMapping(value = "/movies/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importMoviesFile(@RequestParam("file") MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            logger.info("Importing movies from uploaded file {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+            return importMovies(in);
+        } catch (IOException e) {
+            logger.error("Error reading import file: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body(Map.of("error", "Failed to read import file: " + e.getMessage()));
+        }
+    }
+    
+    // Same as above with the file as the raw request body, e.g. curl --data-binary @movies.ndjson
+    @PostMapping(value = "/movies/import", consumes = {"text/csv", "text/plain", MediaType.APPLICATION_NDJSON_VALUE,
+            MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<?> importMoviesBody(HttpServletRequest request) {
+        try (InputStream in = request.getInputStream()) {
+            logger.info("Importing movies from request body ({})", request.getContentType());
+            return importMovies(in);
+        } catch (IOException e) {
+            logger.error("Error reading import body: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body(Map.of("error", "Failed to read import body: " + e.getMessage()));
+        }
+    }
+    
+    private ResponseEntity<?> importMovies(InputStream in) throws IOException {
+        try {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            String username = auth.getName();
+            User admin = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            
+            return ResponseEntity.ok(movieFileImportService.importFile(in, admin));
+        } catch (RuntimeException e) {
+            logger.error("Error importing movies file: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to import movies: " + e.getMessage()));
+        }
+    }
+    
+    // Start a background import; progress is polled from /import-jobs/{id}
+    @PostMapping("/import-jobs")
+    public ResponseEntity<?> submitImportJob(@RequestBody List<String> imdbIds) {
+        try {
+            if (imdbIds == null || imdbIds.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "IMDB IDs are required"));
+            }
+            
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            String username = auth.getName();
+            User admin = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            
+            ImportJob job = importJobService.submit(imdbIds, admin);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(importJobService.getStatus(job));
+        } catch (Exception e) {
+            logger.error("Error submitting import job: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to submit import job: " + e.getMessage()));
+        }
+    }
+    
+    // All import jobs, newest first
+    @GetMapping("/import-jobs")
+    public ResponseEntity<?> getImportJobs() {
+        return ResponseEntity.ok(importJobService.getJobs().stream()
+                .map(importJobService::getStatus)
+                .collect(Collectors.toList()));
+    }
+    
+    // Progress of one import job (done, remaining, movies per second)
+    @GetMapping("/import-jobs/{id}")
+    public ResponseEntity<?> getImportJob(@PathVariable Long id) {
+        return importJobService.getJob(id)
+                .<ResponseEntity<?>>map(job -> ResponseEntity.ok(importJobService.getStatus(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    // IMDB IDs of an import job that could not be added, with the reason
+    @GetMapping("/import-jobs/{id}/failures")
+    public ResponseEntity<?> getImportJobFailures(@PathVariable Long id,
+                                                  @RequestParam(defaultValue = "0") int page,
+                                                  @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(importJobService.getFailures(id, page, size));
+    }
+    
+    // Continue a failed import job from its last checkpoint
+    @PostMapping("/import-jobs/{id}/resume")
+    public ResponseEntity<?> resumeImportJob(@PathVariable Long id) {
+        return importJobService.resume(id)
+                .<ResponseEntity<?>>map(job -> ResponseEntity.ok(importJobService.getStatus(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    // Streaming batch add for Accept: application/x-ndjson; one line per IMDB ID
+    // (imdbId, status, movieId, error) as soon as its chunk is done
+    @PostMapping(value = "/movies/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<MovieBatchItem>> addMoviesBatchStream(@RequestBody List<String> imdbIds) {
+        if (imdbIds == null || imdbIds.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        logger.info("Adding {} movies in streamed batch", imdbIds.size());
+        
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String username = auth.getName();
+        User admin = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        return ResponseEntity.ok(movieService.addMoviesStreaming(imdbIds, admin));
+    }
+    
     // Remove a movie from the database
     @DeleteMapping("/movies/{id}")
     public ResponseEntity<?> removeMovie(@PathVariable Long id) {
@@ -131,8 +411,8 @@ public class AdminController {
     public ResponseEntity<?> removeMoviesBatch(@RequestBody List<Long> ids) {
         try {
             logger.info("Removing {} movies in batch", ids.size());
-            movieService.removeMovies(ids);
-            return ResponseEntity.ok().build();
+            Map<String, Integer> counts = movieService.removeMovies(ids);
+            return ResponseEntity.ok(counts);
         } catch (Exception e) {
             logger.error("Error removing movies in batch: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -140,18 +420,20 @@ public class AdminController {
         }
     }
 
+    // Streaming batch remove for Accept: application/x-ndjson; one line per movie ID
+    @DeleteMapping(value = "/movies/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<MovieBatchItem>> removeMoviesBatchStream(@RequestBody List<Long> ids) {
+        logger.info("Removing {} movies in streamed batch", ids.size());
+        return ResponseEntity.ok(movieService.removeMoviesStreaming(ids));
+    }
+
     // Test OMDB API directly
     @GetMapping("/omdb/test")
     public ResponseEntity<?> testOmdbApi(@RequestParam(defaultValue = "Guardians of the Galaxy") String title) {
         try {
             logger.info("Testing OMDB API with title: {}", title);
             
-            String url = "http://www.omdbapi.com/?apikey=" + omdbApiService.getApiKey() + "&s=" + title + "&type=movie";
-            logger.info("Direct OMDB API URL: {}", url);
-            
-            RestTemplate restTemplate = new RestTemplate();
-            Object response = restTemplate.getForObject(url, Object.class);
-            
+            JsonNode response = omdbApiService.searchRaw(title);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             logger.error("Error testing OMDB API: {}", e.getMessage(), e);
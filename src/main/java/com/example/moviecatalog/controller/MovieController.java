@@ -1,9 +1,12 @@
 package com.example.moviecatalog.controller;
 
 import com.example.moviecatalog.model.Movie;
+import com.example.moviecatalog.model.MovieSuggestion;
 import com.example.moviecatalog.model.Rating;
 import com.example.moviecatalog.model.User;
 import com.example.moviecatalog.repository.UserRepository;
+import com.example.moviecatalog.service.MovieAutocompleteIndex;
+import com.example.moviecatalog.service.MovieSearchMode;
 import com.example.moviecatalog.service.MovieService;
 import com.example.moviecatalog.service.RatingService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +19,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -31,6 +36,9 @@ public class MovieController {
     
     @Autowired
     private UserRepository userRepository;
+    
+    @Autowired
+    private MovieAutocompleteIndex autocompleteIndex;
 
     // Get all movies with pagination
     @GetMapping
@@ -49,19 +57,63 @@ public class MovieController {
         return ResponseEntity.ok(movies);
     }
     
-    // Search movies
+    // Search movies; mode=title (substring), fulltext (ranked, all text fields) or fuzzy (typo-tolerant title)
     @GetMapping("/search")
     public ResponseEntity<Page<Movie>> searchMovies(
             @RequestParam String title,
+            @RequestParam(required = false) MovieSearchMode mode,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<Movie> movies = movieService.searchMovies(title, pageable);
+        Page<Movie> movies = movieService.searchMovies(title, mode, pageable);
         
         return ResponseEntity.ok(movies);
     }
     
+    // Typeahead: the most-rated titles starting with prefix, as id/title/year only
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<MovieSuggestion>> autocomplete(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        return ResponseEntity.ok(autocompleteIndex.suggest(prefix, limit));
+    }
+    
+    // Faceted browsing: any of the given values within a facet, all facets combined,
+    // along with how many movies each facet value would leave
+    @GetMapping("/browse")
+    public ResponseEntity<Map<String, Object>> browseMovies(
+            @RequestParam(required = false) List<String> genre,
+            @RequestParam(required = false) List<String> decade,
+            @RequestParam(required = false) List<String> year,
+            @RequestParam(required = false) List<String> language,
+            @RequestParam(required = false) List<String> country,
+            @RequestParam(required = false) List<String> rated,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        
+        Map<String, List<String>> filters = new LinkedHashMap<>();
+        addFilter(filters, "genre", genre);
+        addFilter(filters, "decade", decade);
+        addFilter(filters, "year", year);
+        addFilter(filters, "language", language);
+        addFilter(filters, "country", country);
+        addFilter(filters, "rated", rated);
+        
+        try {
+            return ResponseEntity.ok(movieService.browseMovies(filters, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    private static void addFilter(Map<String, List<String>> filters, String facet, List<String> values) {
+        if (values != null && !values.isEmpty()) {
+            filters.put(facet, values);
+        }
+    }
+    
     // Get movie by ID
     @GetMapping("/{id}")
     public ResponseEntity<Movie> getMovieById(@PathVariable Long id) {
@@ -2,11 +2,17 @@ package com.example.moviecatalog.controller;
 
 import com.example.moviecatalog.model.Movie;
 import com.example.moviecatalog.model.OmdbResponse;
+import com.example.moviecatalog.service.MovieSearchIndex;
+import com.example.moviecatalog.service.MovieSearchMode;
 import com.example.moviecatalog.service.MovieService;
+import com.example.moviecatalog.service.OmdbHealthMonitor;
 import com.example.moviecatalog.service.OmdbApiService;
+import com.example.moviecatalog.service.ReactiveOmdbApiService;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -14,11 +20,10 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
 
 @RestController
 @RequestMapping("/api/public")
@@ -28,8 +33,20 @@ public class PublicController {
     @Autowired
     private OmdbApiService omdbApiService;
     
+    @Autowired
+    private ReactiveOmdbApiService reactiveOmdbApiService;
+    
     @Autowired
     private MovieService movieService;
+    
+    @Autowired
+    private OmdbHealthMonitor omdbHealthMonitor;
+    
+    @Autowired
+    private MovieSearchIndex movieSearchIndex;
+    
+    @Value("${omdb.bulk.max-ids:100}")
+    private int maxBulkIds;
 
     // Public test endpoint for OMDB API
     @GetMapping("/omdb/test")
@@ -37,12 +54,7 @@ public class PublicController {
         try {
             logger.info("Public testing OMDB API with title: {}", title);
             
-            String url = "http://www.omdbapi.com/?apikey=" + omdbApiService.getApiKey() + "&s=" + title + "&type=movie";
-            logger.info("Direct OMDB API URL: {}", url);
-            
-            RestTemplate restTemplate = new RestTemplate();
-            Object response = restTemplate.getForObject(url, Object.class);
-            
+            JsonNode response = omdbApiService.searchRaw(title);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             logger.error("Error testing OMDB API: {}", e.getMessage(), e);
@@ -80,117 +92,54 @@ public class PublicController {
         }
     }
     
-    // Test endpoint for OMDB API with a hardcoded search term
-    @GetMapping("/omdb/test-guardians")
-    public ResponseEntity<?> testGuardiansSearch() {
+    // Details for several movies in one round trip: ?ids=tt...,tt...
+    @GetMapping("/omdb/details")
+    public ResponseEntity<?> getOmdbDetailsBulk(@RequestParam List<String> ids) {
+        if (ids.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "IMDB IDs are required"));
+        }
+        if (ids.size() > maxBulkIds) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At most " + maxBulkIds + " IMDB IDs per request"));
+        }
         try {
-            logger.info("Testing OMDB API with hardcoded search term: 'Guardians of the Galaxy Vol. 2'");
-            
-            String apiKey = omdbApiService.getApiKey();
-            String apiUrl = omdbApiService.getApiUrl();
-            String searchTerm = "Guardians of the Galaxy Vol. 2";
-            
-            // Try different search terms
-            String[] searchTerms = {
-                "Guardians",
-                "Guardians of the Galaxy",
-                "Guardians+of+the+Galaxy",
-                "Guardians%20of%20the%20Galaxy",
-                "Guardians of the Galaxy Vol. 2",
-                "Guardians+of+the+Galaxy+Vol.+2",
-                "Guardians%20of%20the%20Galaxy%20Vol.%202"
-            };
-            
-            Map<String, Object> results = new HashMap<>();
-            
-            for (String term : searchTerms) {
-                String url = apiUrl + "?apikey=" + apiKey + "&s=" + term + "&type=movie";
-                logger.info("Testing URL: {}", url);
-                
-                RestTemplate restTemplate = new RestTemplate();
-                Object response = restTemplate.getForObject(url, Object.class);
-                
-                results.put(term, response);
-            }
-            
-            return ResponseEntity.ok(results);
+            return ResponseEntity.ok(omdbApiService.getMovieDetailsBulk(ids));
         } catch (Exception e) {
-            logger.error("Error testing OMDB API: {}", e.getMessage(), e);
+            logger.error("Error getting bulk OMDB details: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", "Failed to test OMDB API: " + e.getMessage()));
+                    .body(Map.of("error", "Failed to get movie details: " + e.getMessage()));
         }
     }
     
-    // Direct test endpoint for OMDB API using the provided API key
-    @GetMapping("/omdb/direct-test")
-    public ResponseEntity<?> directTestOmdbApi() {
-        try {
-            logger.info("Direct testing OMDB API with the provided API key");
-            
-            String apiKey = omdbApiService.getApiKey();
-            String apiUrl = omdbApiService.getApiUrl();
-            
-            // Test with a known IMDB ID (Guardians of the Galaxy Vol. 2)
-            String url = apiUrl + "?i=tt3896198&apikey=" + apiKey;
-            logger.info("Direct OMDB API URL: {}", url);
-            
-            RestTemplate restTemplate = new RestTemplate();
-            Object response = restTemplate.getForObject(url, Object.class);
-            
-            return ResponseEntity.ok(Map.of(
-                "url", url,
-                "response", response
-            ));
-        } catch (Exception e) {
-            logger.error("Error testing OMDB API: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", "Failed to test OMDB API: " + e.getMessage()));
-        }
+    // Non-blocking OMDB search; no servlet thread is held while OMDB responds
+    @GetMapping("/omdb/reactive/search")
+    public Mono<ResponseEntity<?>> searchOmdbReactive(@RequestParam String title, @RequestParam(defaultValue = "1") int page) {
+        logger.info("Public reactive searching OMDB for title: '{}' (page: {})", title, page);
+        return reactiveOmdbApiService.searchMovies(title, page)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(e -> {
+                    logger.error("Error searching OMDB: {}", e.getMessage(), e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(Map.of("error", "Failed to search OMDB: " + e.getMessage())));
+                });
     }
     
-    // Direct curl test endpoint for OMDB API
-    @GetMapping("/omdb/curl-test")
-    public ResponseEntity<?> curlTestOmdbApi(@RequestParam(defaultValue = "Guardians of the Galaxy") String title) {
-        try {
-            logger.info("Testing OMDB API with curl for title: {}", title);
-            
-            // Encode the title for URL
-            String encodedTitle = java.net.URLEncoder.encode(title, "UTF-8");
-            String apiKey = omdbApiService.getApiKey();
-            
-            // Create the curl command
-            String curlCommand = String.format("curl -X GET \"http://www.omdbapi.com/?s=%s&apikey=%s&type=movie\"", 
-                                              encodedTitle, apiKey);
-            logger.info("Curl command: {}", curlCommand);
-            
-            // Execute the curl command
-            Process process = Runtime.getRuntime().exec(curlCommand);
-            
-            // Read the output
-            java.io.BufferedReader reader = new java.io.BufferedReader(
-                new java.io.InputStreamReader(process.getInputStream()));
-            
-            StringBuilder output = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                output.append(line);
-            }
-            
-            // Wait for the process to complete
-            int exitCode = process.waitFor();
-            logger.info("Curl exit code: {}", exitCode);
-            
-            // Return the output
-            return ResponseEntity.ok(Map.of(
-                "command", curlCommand,
-                "exitCode", exitCode,
-                "output", output.toString()
-            ));
-        } catch (Exception e) {
-            logger.error("Error testing OMDB API with curl: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", "Failed to test OMDB API with curl: " + e.getMessage()));
-        }
+    // Non-blocking OMDB details lookup
+    @GetMapping("/omdb/reactive/details/{imdbId}")
+    public Mono<ResponseEntity<?>> getOmdbDetailsReactive(@PathVariable String imdbId) {
+        logger.info("Public reactive getting OMDB details for IMDB ID: {}", imdbId);
+        return reactiveOmdbApiService.getMovieDetails(imdbId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(e -> {
+                    logger.error("Error getting OMDB details: {}", e.getMessage(), e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(Map.of("error", "Failed to get movie details: " + e.getMessage())));
+                });
+    }
+    
+    // Cached OMDB health, refreshed in the background by OmdbHealthMonitor
+    @GetMapping("/omdb/health")
+    public ResponseEntity<?> getOmdbHealth() {
+        return ResponseEntity.ok(omdbHealthMonitor.getStatus());
     }
     
     // Get all movies with pagination
@@ -214,14 +163,29 @@ public class PublicController {
     @GetMapping("/movies/search")
     public ResponseEntity<Page<Movie>> searchMovies(
             @RequestParam String title,
+            @RequestParam(required = false) MovieSearchMode mode,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<Movie> movies = movieService.searchMovies(title, pageable);
+        Page<Movie> movies = movieService.searchMovies(title, mode, pageable);
         return ResponseEntity.ok(movies);
     }
     
+    // Keyword search over title, people, genre, language and country served from the
+    // in-memory index; operator=and needs every word, or any of them
+    @GetMapping("/movies/search/index")
+    public ResponseEntity<?> searchMovieIndex(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "and") String operator,
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        if (!operator.equalsIgnoreCase("and") && !operator.equalsIgnoreCase("or")) {
+            return ResponseEntity.badRequest().body(Map.of("error", "operator must be 'and' or 'or'"));
+        }
+        return ResponseEntity.ok(movieSearchIndex.search(q, operator.equalsIgnoreCase("and"), limit));
+    }
+    
     // Get movie by ID
     @GetMapping("/movies/{id}")
     public ResponseEntity<Movie> getMovieById(@PathVariable Long id) {
@@ -230,17 +194,17 @@ public class PublicController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    // Search OMDB API using direct HTTP implementation
+    // Search OMDB API; kept for existing clients, same lookup as the other OMDB searches
     @GetMapping("/omdb/direct-search")
     public ResponseEntity<?> directSearchOmdb(@RequestParam String title, @RequestParam(defaultValue = "1") int page) {
         try {
-            logger.info("Direct HTTP searching OMDB for title: '{}' (page: {})", title, page);
-            List<OmdbResponse> results = omdbApiService.searchMoviesDirectHttp(title, page);
+            logger.info("Direct searching OMDB for title: '{}' (page: {})", title, page);
+            List<OmdbResponse> results = omdbApiService.searchMovies(title, page);
             return ResponseEntity.ok(results);
         } catch (Exception e) {
-            logger.error("Error searching OMDB with direct HTTP: {}", e.getMessage(), e);
+            logger.error("Error searching OMDB: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", "Failed to search OMDB with direct HTTP: " + e.getMessage()));
+                    .body(Map.of("error", "Failed to search OMDB: " + e.getMessage()));
         }
     }
 
@@ -3,6 +3,7 @@ package com.example.moviecatalog.controller;
 import com.example.moviecatalog.model.Movie;
 import com.example.moviecatalog.model.Rating;
 import com.example.moviecatalog.model.User;
+import com.example.moviecatalog.service.MovieSearchMode;
 import com.example.moviecatalog.service.MovieService;
 import com.example.moviecatalog.service.RatingService;
 import com.example.moviecatalog.service.UserService;
@@ -38,15 +39,17 @@ public class UserController {
     /**
      * Search movies with pagination
      * @param searchTerm Search query
+     * @param mode title (substring), fulltext (ranked) or fuzzy (typo-tolerant); defaults to movies.search.default-mode
      * @param pageable Pagination information
      * @return Page of matching movies
      */
     @GetMapping("/movies/search")
     public ResponseEntity<Page<Movie>> searchMovies(
             @RequestParam String searchTerm,
+            @RequestParam(required = false) MovieSearchMode mode,
             Pageable pageable
     ) {
-        return ResponseEntity.ok(movieService.searchMovies(searchTerm, pageable));
+        return ResponseEntity.ok(movieService.searchMovies(searchTerm, mode, pageable));
     }
 
     /**
@@ -0,0 +1,67 @@
+package com.example.moviecatalog.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+// A background batch import; its counters are the last checkpoint
+@Data
+@Entity
+@Table(name = "import_jobs")
+public class ImportJob {
+    
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+    
+    @ManyToOne
+    @JoinColumn(name = "created_by")
+    private User createdBy;
+    
+    @Column(name = "total_items", nullable = false)
+    private int totalItems;
+    
+    @Column(name = "added_count", nullable = false)
+    private int addedCount;
+    
+    @Column(name = "existing_count", nullable = false)
+    private int existingCount;
+    
+    @Column(name = "failed_count", nullable = false)
+    private int failedCount;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    // Start of the current run; a resumed job starts a new run
+    @Column(name = "run_started_at")
+    private LocalDateTime runStartedAt;
+    
+    @Column(name = "processed_at_run_start", nullable = false)
+    private int processedAtRunStart;
+    
+    @Column(name = "checkpoint_at")
+    private LocalDateTime checkpointAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    @Column(columnDefinition = "TEXT")
+    private String error;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    @Transient
+    public int getProcessedCount() {
+        return addedCount + existingCount + failedCount;
+    }
+}
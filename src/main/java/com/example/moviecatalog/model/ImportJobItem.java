@@ -0,0 +1,36 @@
+package com.example.moviecatalog.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// One IMDB ID of an import job; PENDING items are what a resumed job still has to do
+@Data
+@Entity
+@Table(name = "import_job_items",
+       indexes = @Index(name = "idx_import_job_items_job_status", columnList = "job_id, status, position"))
+public class ImportJobItem {
+    
+    public enum Status { PENDING, ADDED, EXISTING, FAILED }
+    
+    // A job inserts all of its items at once on submit
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "import_job_items_seq")
+    @SequenceGenerator(name = "import_job_items_seq", sequenceName = "import_job_items_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+    
+    @Column(nullable = false)
+    private int position;
+    
+    @Column(name = "imdb_id", nullable = false)
+    private String imdbId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+    
+    @Column(columnDefinition = "TEXT")
+    private String error;
+}
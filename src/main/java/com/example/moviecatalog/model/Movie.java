@@ -11,8 +11,11 @@ import java.util.Set;
 @Table(name = "movies")
 public class Movie {
     
+    // Pooled sequence (see db/sequence-ids.sql) so saveAll can batch its inserts;
+    // IDENTITY would need one round trip per row to read back the key
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movies_seq")
+    @SequenceGenerator(name = "movies_seq", sequenceName = "movies_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "imdb_id", nullable = false, unique = true)
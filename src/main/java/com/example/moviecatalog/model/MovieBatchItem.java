@@ -0,0 +1,53 @@
+package com.example.moviecatalog.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+// One line of a streamed (NDJSON) batch add or remove response
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MovieBatchItem {
+    
+    public enum Status { ADDED, EXISTING, DELETED, NOT_FOUND, FAILED }
+    
+    private String imdbId;
+    
+    private Long movieId;
+    
+    private Status status;
+    
+    private String error;
+    
+    public static MovieBatchItem of(MovieImportResult result) {
+        MovieBatchItem item = new MovieBatchItem();
+        item.setImdbId(result.getImdbId());
+        item.setMovieId(result.getMovie() != null ? result.getMovie().getId() : null);
+        item.setStatus(Status.valueOf(result.getStatus().name()));
+        item.setError(result.getError());
+        return item;
+    }
+    
+    public static MovieBatchItem deleted(Movie movie) {
+        MovieBatchItem item = new MovieBatchItem();
+        item.setImdbId(movie.getImdbId());
+        item.setMovieId(movie.getId());
+        item.setStatus(Status.DELETED);
+        return item;
+    }
+    
+    public static MovieBatchItem notFound(Long movieId) {
+        MovieBatchItem item = new MovieBatchItem();
+        item.setMovieId(movieId);
+        item.setStatus(Status.NOT_FOUND);
+        return item;
+    }
+    
+    public static MovieBatchItem failed(String imdbId, Long movieId, String error) {
+        MovieBatchItem item = new MovieBatchItem();
+        item.setImdbId(imdbId);
+        item.setMovieId(movieId);
+        item.setStatus(Status.FAILED);
+        item.setError(error);
+        return item;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.moviecatalog.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+// Outcome of importing one IMDB ID in a batch
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MovieImportResult {
+    
+    public enum Status { ADDED, EXISTING, FAILED }
+    
+    private String imdbId;
+    
+    private Status status;
+    
+    private Movie movie;
+    
+    private String error;
+    
+    public static MovieImportResult added(Movie movie) {
+        return of(movie.getImdbId(), Status.ADDED, movie, null);
+    }
+    
+    public static MovieImportResult existing(Movie movie) {
+        return of(movie.getImdbId(), Status.EXISTING, movie, null);
+    }
+    
+    public static MovieImportResult failed(String imdbId, String error) {
+        return of(imdbId, Status.FAILED, null, error);
+    }
+    
+    private static MovieImportResult of(String imdbId, Status status, Movie movie, String error) {
+        MovieImportResult result = new MovieImportResult();
+        result.setImdbId(imdbId);
+        result.setStatus(status);
+        result.setMovie(movie);
+        result.setError(error);
+        return result;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.moviecatalog.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+// One movie returned by the in-memory search index, without loading the entity
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MovieSearchHit {
+    
+    private Long movieId;
+    
+    private String imdbId;
+    
+    private String title;
+    
+    private String year;
+    
+    private Double score;
+    
+    public static MovieSearchHit of(Long movieId, String imdbId, String title, String year, Double score) {
+        MovieSearchHit hit = new MovieSearchHit();
+        hit.setMovieId(movieId);
+        hit.setImdbId(imdbId);
+        hit.setTitle(title);
+        hit.setYear(year);
+        hit.setScore(score);
+        return hit;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.moviecatalog.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+// One autocomplete suggestion; just enough for a typeahead dropdown
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MovieSuggestion {
+
+    private Long movieId;
+
+    private String title;
+
+    private Integer year;
+
+    private Integer ratingCount;
+
+    public static MovieSuggestion of(Long movieId, String title, Integer year, Integer ratingCount) {
+        MovieSuggestion suggestion = new MovieSuggestion();
+        suggestion.setMovieId(movieId);
+        suggestion.setTitle(title);
+        suggestion.setYear(year);
+        suggestion.setRatingCount(ratingCount);
+        return suggestion;
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.moviecatalog.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 
+// Only the mapped fields are bound; Ratings, BoxOffice etc. are skipped by the parser
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class OmdbResponse {
     
     @JsonProperty("imdbID")
@@ -63,6 +67,17 @@ public class OmdbResponse {
     @JsonProperty("Error")
     private String error;
     
+    // Set when served from a fallback (cache or local catalog) while OMDB is unavailable
+    @JsonProperty("stale")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean stale;
+    
+    // Set on enriched search items whose details lookup failed or timed out;
+    // only the search fields (title, year, poster, imdbID, type) are filled in
+    @JsonProperty("partial")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean partial;
+    
     // Convert to Movie entity
     public Movie toMovie() {
         Movie movie = new Movie();
@@ -85,4 +100,68 @@ public class OmdbResponse {
         movie.setType(this.type);
         return movie;
     }
-}
+    
+    // Copy of this response flagged as stale
+    public OmdbResponse asStale() {
+        OmdbResponse copy = copy();
+        copy.setStale(true);
+        return copy;
+    }
+    
+    // Copy of this response flagged as partial
+    public OmdbResponse asPartial() {
+        OmdbResponse copy = copy();
+        copy.setPartial(true);
+        return copy;
+    }
+    
+    private OmdbResponse copy() {
+        OmdbResponse copy = new OmdbResponse();
+        copy.setImdbId(this.imdbId);
+        copy.setTitle(this.title);
+        copy.setYear(this.year);
+        copy.setPosterUrl(this.posterUrl);
+        copy.setPlot(this.plot);
+        copy.setDirector(this.director);
+        copy.setActors(this.actors);
+        copy.setGenre(this.genre);
+        copy.setRuntime(this.runtime);
+        copy.setRated(this.rated);
+        copy.setReleased(this.released);
+        copy.setWriter(this.writer);
+        copy.setLanguage(this.language);
+        copy.setCountry(this.country);
+        copy.setAwards(this.awards);
+        copy.setImdbRating(this.imdbRating);
+        copy.setType(this.type);
+        copy.setResponse(this.response);
+        copy.setError(this.error);
+        copy.setStale(this.stale);
+        copy.setPartial(this.partial);
+        return copy;
+    }
+    
+    // Convert from a Movie entity already stored in the catalog
+    public static OmdbResponse fromMovie(Movie movie) {
+        OmdbResponse response = new OmdbResponse();
+        response.setImdbId(movie.getImdbId());
+        response.setTitle(movie.getTitle());
+        response.setYear(movie.getYear());
+        response.setPosterUrl(movie.getPosterUrl());
+        response.setPlot(movie.getPlot());
+        response.setDirector(movie.getDirector());
+        response.setActors(movie.getActors());
+        response.setGenre(movie.getGenre());
+        response.setRuntime(movie.getRuntime());
+        response.setRated(movie.getRated());
+        response.setReleased(movie.getReleased());
+        response.setWriter(movie.getWriter());
+        response.setLanguage(movie.getLanguage());
+        response.setCountry(movie.getCountry());
+        response.setAwards(movie.getAwards());
+        response.setImdbRating(movie.getImdbRating());
+        response.setType(movie.getType());
+        response.setResponse("True");
+        return response;
+    }
+}
\ No newline at end of file
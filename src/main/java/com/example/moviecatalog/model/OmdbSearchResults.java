@@ -0,0 +1,23 @@
+package com.example.moviecatalog.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+// Envelope returned by the OMDB "?s=" search endpoint
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class OmdbSearchResults {
+    
+    @JsonProperty("Search")
+    private OmdbResponse[] search;
+    
+    @JsonProperty("totalResults")
+    private String totalResults;
+    
+    @JsonProperty("Response")
+    private String response;
+    
+    @JsonProperty("Error")
+    private String error;
+}
@@ -10,8 +10,10 @@ import java.time.LocalDateTime;
        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "movie_id"}))
 public class Rating {
     
+    // Sequence-backed like Movie, so rating backfills are batched too
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ratings_seq")
+    @SequenceGenerator(name = "ratings_seq", sequenceName = "ratings_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne
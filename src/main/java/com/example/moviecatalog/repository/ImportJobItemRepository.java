@@ -0,0 +1,12 @@
+package com.example.moviecatalog.repository;
+
+import com.example.moviecatalog.model.ImportJobItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface ImportJobItemRepository extends JpaRepository<ImportJobItem, Long> {
+    List<ImportJobItem> findByJobIdAndStatusOrderByPositionAsc(Long jobId, ImportJobItem.Status status, Pageable pageable);
+}
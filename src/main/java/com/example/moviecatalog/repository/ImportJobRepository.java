@@ -0,0 +1,13 @@
+package com.example.moviecatalog.repository;
+
+import com.example.moviecatalog.model.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+    List<ImportJob> findByStatusIn(Collection<ImportJob.Status> statuses);
+    List<ImportJob> findAllByOrderByCreatedAtDesc();
+}
@@ -4,7 +4,12 @@ import com.example.moviecatalog.model.Movie;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +17,48 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
     Optional<Movie> findByImdbId(String imdbId);
     Page<Movie> findByTitleContainingIgnoreCase(String title, Pageable pageable);
     boolean existsByImdbId(String imdbId);
+    List<Movie> findByImdbIdIn(Collection<String> imdbIds);
+    
+    // Keyset page: the next movies after lastId, in id order
+    List<Movie> findByIdGreaterThanOrderByIdAsc(Long lastId, Pageable pageable);
+    
+    // Keyset page of [id, title, year] rows, without loading whole entities
+    @Query("SELECT m.id, m.title, m.year FROM Movie m WHERE m.id > :lastId ORDER BY m.id")
+    List<Object[]> findTitlesAfter(@Param("lastId") Long lastId, Pageable pageable);
+    
+    // Keyset page of [id, genre, year, language, country, rated] rows for the facet index
+    @Query("SELECT m.id, m.genre, m.year, m.language, m.country, m.rated FROM Movie m WHERE m.id > :lastId ORDER BY m.id")
+    List<Object[]> findFacetFieldsAfter(@Param("lastId") Long lastId, Pageable pageable);
+    
+    // Ranked full-text search on the search_vector column (db/movie-search.sql);
+    // websearch syntax: quoted phrases, "or", -exclusions. Pageable must be unsorted.
+    @Query(value = "SELECT * FROM movies WHERE search_vector @@ websearch_to_tsquery('english', :query) "
+            + "ORDER BY ts_rank(search_vector, websearch_to_tsquery('english', :query)) DESC, id",
+            countQuery = "SELECT count(*) FROM movies WHERE search_vector @@ websearch_to_tsquery('english', :query)",
+            nativeQuery = true)
+    Page<Movie> searchFullText(@Param("query") String query, Pageable pageable);
+    
+    // lower(title) matches idx_movies_title_trgm (db/movie-trigram.sql); pattern is already lower-cased
+    @Query("SELECT m FROM Movie m WHERE lower(m.title) LIKE :pattern ESCAPE '\\'")
+    Page<Movie> findByTitleLike(@Param("pattern") String pattern, Pageable pageable);
+    
+    // Substring pattern or word similarity above pg_trgm.word_similarity_threshold,
+    // best matches first; both sides use the trigram index. Pageable must be unsorted.
+    @Query(value = "SELECT * FROM movies WHERE lower(title) LIKE :pattern ESCAPE '\\' OR :query <% lower(title) "
+            + "ORDER BY word_similarity(:query, lower(title)) DESC, id",
+            countQuery = "SELECT count(*) FROM movies WHERE lower(title) LIKE :pattern ESCAPE '\\' OR :query <% lower(title)",
+            nativeQuery = true)
+    Page<Movie> searchFuzzyTitle(@Param("query") String query, @Param("pattern") String pattern, Pageable pageable);
+    
+    // Applies to the current transaction only
+    @Query(value = "SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)", nativeQuery = true)
+    String setWordSimilarityThreshold(@Param("threshold") String threshold);
+    
+    @Query("SELECT m.imdbId FROM Movie m WHERE m.id IN :ids")
+    List<String> findImdbIdsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Set-based; ratings of these movies must be deleted first
+    @Modifying
+    @Query("DELETE FROM Movie m WHERE m.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
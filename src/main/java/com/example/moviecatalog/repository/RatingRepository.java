@@ -4,10 +4,23 @@ import com.example.moviecatalog.model.Rating;
 import com.example.moviecatalog.model.Movie;
 import com.example.moviecatalog.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RatingRepository extends JpaRepository<Rating, Long> {
     Optional<Rating> findByUserAndMovie(User user, Movie movie);
+    
+    // [movie id, number of ratings] for every rated movie
+    @Query("SELECT r.movie.id, count(r) FROM Rating r GROUP BY r.movie.id")
+    List<Object[]> countByMovie();
+    
+    @Modifying
+    @Query("DELETE FROM Rating r WHERE r.movie.id IN :movieIds")
+    int deleteByMovieIdIn(@Param("movieIds") Collection<Long> movieIds);
 }
\ No newline at end of file
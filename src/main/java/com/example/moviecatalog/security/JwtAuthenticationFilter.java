@@ -112,6 +112,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Re-apply the token on async dispatches (Mono and streaming responses),
+     * otherwise the second authorization pass runs without an authentication
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
     /**
      * Extract JWT token from Authorization header
      * @param request HttpServletRequest
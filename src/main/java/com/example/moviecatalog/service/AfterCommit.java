@@ -0,0 +1,26 @@
+package com.example.moviecatalog.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Defers in-memory side effects (index updates, cache evictions) until the
+// database change they mirror has committed
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    // Runs the action once the surrounding transaction has committed, or right away without one
+    static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.moviecatalog.service;
+
+import com.example.moviecatalog.model.ImportJob;
+import com.example.moviecatalog.model.ImportJobItem;
+import com.example.moviecatalog.model.MovieImportResult;
+import com.example.moviecatalog.model.User;
+import com.example.moviecatalog.repository.ImportJobItemRepository;
+import com.example.moviecatalog.repository.ImportJobRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+// Runs batch imports in the background. Every IMDB ID of a job is stored as an
+// import_job_items row; chunks of pending items go through MovieService.addMovies
+// and their outcomes are written back together with the job counters in one
+// transaction. That checkpoint is what a job resumes from after a restart.
+@Service
+public class ImportJobService {
+    private static final Logger logger = LoggerFactory.getLogger(ImportJobService.class);
+
+    private final ImportJobRepository jobRepository;
+    private final ImportJobItemRepository itemRepository;
+    private final MovieService movieService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${movies.import.job-chunk-size:100}")
+    private int chunkSize;
+
+    @Value("${movies.import.job-workers:1}")
+    private int workers;
+
+    // How long shutdown waits for the chunks in flight to reach their checkpoint
+    @Value("${movies.import.job-shutdown-grace-ms:30000}")
+    private long shutdownGraceMs;
+
+    private ExecutorService executor;
+    // Set on shutdown; workers finish their current chunk and start no new one
+    private volatile boolean stopping;
+
+    @Autowired
+    public ImportJobService(ImportJobRepository jobRepository, ImportJobItemRepository itemRepository,
+                            MovieService movieService, TransactionTemplate transactionTemplate) {
+        this.jobRepository = jobRepository;
+        this.itemRepository = itemRepository;
+        this.movieService = movieService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    public void startWorkers() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "import-job-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stopWorkers() {
+        // Stopped jobs stay RUNNING and are picked up again on the next start
+        stopping = true;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownGraceMs, TimeUnit.MILLISECONDS)) {
+                logger.warn("Import jobs still running after {} ms, interrupting them", shutdownGraceMs);
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Stores the job and its items, then queues it; returns without waiting for the import
+    public ImportJob submit(List<String> imdbIds, User admin) {
+        List<String> ids = imdbIds.stream()
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+
+        ImportJob job = transactionTemplate.execute(status -> {
+            ImportJob newJob = new ImportJob();
+            newJob.setStatus(ImportJob.Status.QUEUED);
+            newJob.setCreatedBy(admin);
+            newJob.setTotalItems(ids.size());
+            newJob = jobRepository.save(newJob);
+
+            List<ImportJobItem> items = new ArrayList<>(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                ImportJobItem item = new ImportJobItem();
+                item.setJobId(newJob.getId());
+                item.setPosition(i);
+                item.setImdbId(ids.get(i));
+                item.setStatus(ImportJobItem.Status.PENDING);
+                items.add(item);
+            }
+            itemRepository.saveAll(items);
+            return newJob;
+        });
+
+        logger.info("Queued import job {} with {} movies", job.getId(), ids.size());
+        executor.submit(() -> run(job.getId()));
+        return job;
+    }
+
+    // Puts a failed job back in the queue; its finished items are not redone
+    public Optional<ImportJob> resume(Long jobId) {
+        return jobRepository.findById(jobId).map(job -> {
+            if (job.getStatus() == ImportJob.Status.FAILED) {
+                job.setStatus(ImportJob.Status.QUEUED);
+                job.setError(null);
+                job.setFinishedAt(null);
+                jobRepository.save(job);
+                executor.submit(() -> run(jobId));
+            }
+            return job;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        for (ImportJob job : jobRepository.findByStatusIn(EnumSet.of(ImportJob.Status.QUEUED, ImportJob.Status.RUNNING))) {
+            logger.info("Resuming import job {} at {} of {} movies", job.getId(), job.getProcessedCount(), job.getTotalItems());
+            executor.submit(() -> run(job.getId()));
+        }
+    }
+
+    public Optional<ImportJob> getJob(Long jobId) {
+        return jobRepository.findById(jobId);
+    }
+
+    public List<ImportJob> getJobs() {
+        return jobRepository.findAllByOrderByCreatedAtDesc();
+    }
+
+    public List<ImportJobItem> getFailures(Long jobId, int page, int size) {
+        return itemRepository.findByJobIdAndStatusOrderByPositionAsc(jobId, ImportJobItem.Status.FAILED,
+                PageRequest.of(page, size));
+    }
+
+    // Progress as reported by the status endpoint
+    public Map<String, Object> getStatus(ImportJob job) {
+        int processed = job.getProcessedCount();
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("jobId", job.getId());
+        status.put("status", job.getStatus());
+        status.put("total", job.getTotalItems());
+        status.put("done", job.getAddedCount() + job.getExistingCount());
+        status.put("added", job.getAddedCount());
+        status.put("existing", job.getExistingCount());
+        status.put("failed", job.getFailedCount());
+        status.put("remaining", job.getTotalItems() - processed);
+        status.put("moviesPerSecond", throughput(job));
+        status.put("createdAt", job.getCreatedAt());
+        status.put("runStartedAt", job.getRunStartedAt());
+        status.put("checkpointAt", job.getCheckpointAt());
+        status.put("finishedAt", job.getFinishedAt());
+        status.put("error", job.getError());
+        return status;
+    }
+
+    private void run(Long jobId) {
+        ImportJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() == ImportJob.Status.COMPLETED || job.getStatus() == ImportJob.Status.FAILED) {
+            return;
+        }
+        job.setStatus(ImportJob.Status.RUNNING);
+        job.setRunStartedAt(LocalDateTime.now());
+        job.setProcessedAtRunStart(job.getProcessedCount());
+        job = jobRepository.save(job);
+
+        try {
+            while (!stopping && !Thread.currentThread().isInterrupted()) {
+                List<ImportJobItem> pending = itemRepository.findByJobIdAndStatusOrderByPositionAsc(
+                        jobId, ImportJobItem.Status.PENDING, PageRequest.of(0, chunkSize));
+                if (pending.isEmpty()) {
+                    job.setStatus(ImportJob.Status.COMPLETED);
+                    job.setFinishedAt(LocalDateTime.now());
+                    jobRepository.save(job);
+                    logger.info("Import job {} completed: {} added, {} existing, {} failed", jobId,
+                            job.getAddedCount(), job.getExistingCount(), job.getFailedCount());
+                    return;
+                }
+                List<String> ids = pending.stream().map(ImportJobItem::getImdbId).collect(Collectors.toList());
+                List<MovieImportResult> results = movieService.addMovies(ids, job.getCreatedBy());
+                job = checkpoint(job, pending, results);
+            }
+            logger.info("Import job {} stopped at {} of {} movies, resumes on the next start", jobId,
+                    job.getProcessedCount(), job.getTotalItems());
+        } catch (RuntimeException e) {
+            if (stopping || isInterruption(e)) {
+                // Shutdown cut the chunk short; it is still PENDING and the job resumes from its last checkpoint
+                logger.info("Import job {} interrupted by shutdown at {} of {} movies", jobId,
+                        job.getProcessedCount(), job.getTotalItems());
+                return;
+            }
+            logger.error("Import job {} failed: {}", jobId, e.getMessage(), e);
+            job.setStatus(ImportJob.Status.FAILED);
+            job.setError(e.getMessage());
+            job.setFinishedAt(LocalDateTime.now());
+            jobRepository.save(job);
+        }
+    }
+
+    // Item outcomes and job counters are committed together
+    private ImportJob checkpoint(ImportJob job, List<ImportJobItem> items, List<MovieImportResult> results) {
+        Map<String, MovieImportResult> byId = results.stream()
+                .collect(Collectors.toMap(MovieImportResult::getImdbId, result -> result, (a, b) -> a));
+        return transactionTemplate.execute(status -> {
+            for (ImportJobItem item : items) {
+                MovieImportResult result = byId.get(item.getImdbId());
+                if (result == null || result.getStatus() == MovieImportResult.Status.FAILED) {
+                    item.setStatus(ImportJobItem.Status.FAILED);
+                    item.setError(result != null ? result.getError() : "No result for this IMDB ID");
+                    job.setFailedCount(job.getFailedCount() + 1);
+                } else if (result.getStatus() == MovieImportResult.Status.ADDED) {
+                    item.setStatus(ImportJobItem.Status.ADDED);
+                    job.setAddedCount(job.getAddedCount() + 1);
+                } else {
+                    item.setStatus(ImportJobItem.Status.EXISTING);
+                    job.setExistingCount(job.getExistingCount() + 1);
+                }
+            }
+            itemRepository.saveAll(items);
+            job.setCheckpointAt(LocalDateTime.now());
+            return jobRepository.save(job);
+        });
+    }
+
+    // Reactor and JDBC surface an interrupted worker as some RuntimeException; look for the cause
+    private static boolean isInterruption(Throwable e) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Movies per second over the current run, so time spent down before a resume does not count
+    private static double throughput(ImportJob job) {
+        if (job.getRunStartedAt() == null) {
+            return 0.0;
+        }
+        LocalDateTime end = job.getFinishedAt() != null ? job.getFinishedAt()
+                : job.getCheckpointAt() != null ? job.getCheckpointAt() : job.getRunStartedAt();
+        long millis = Duration.between(job.getRunStartedAt(), end).toMillis();
+        int processed = job.getProcessedCount() - job.getProcessedAtRunStart();
+        return millis <= 0 ? 0.0 : Math.round(processed * 10000.0 / millis) / 10.0;
+    }
+}
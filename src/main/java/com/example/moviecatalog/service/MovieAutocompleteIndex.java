@@ -0,0 +1,626 @@
+package com.example.moviecatalog.service;
+
+import com.example.moviecatalog.model.Movie;
+import com.example.moviecatalog.model.MovieSuggestion;
+import com.example.moviecatalog.repository.MovieRepository;
+import com.example.moviecatalog.repository.RatingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// Title prefix suggestions for typeahead, most-rated first, served from memory.
+// Titles sit in case-insensitive order in parallel primitive arrays (id, year,
+// rating count) with a max segment tree over the rating counts, so a prefix is a
+// binary-searched range and its top K come out of the tree in O(K log n). That is a
+// fixed ~30 bytes per title besides the title string itself. New titles go to a
+// small sorted buffer that becomes another sorted run past merge-threshold;
+// removals and new ratings update the runs in place.
+@Component
+public class MovieAutocompleteIndex {
+    private static final Logger logger = LoggerFactory.getLogger(MovieAutocompleteIndex.class);
+
+    private final MovieRepository movieRepository;
+    private final RatingRepository ratingRepository;
+
+    @Value("${movies.autocomplete.enabled:true}")
+    private boolean enabled;
+
+    // Titles loaded per query while building
+    @Value("${movies.autocomplete.build-page-size:5000}")
+    private int buildPageSize;
+
+    // Buffered new titles before they become a sorted run
+    @Value("${movies.autocomplete.merge-threshold:4096}")
+    private int mergeThreshold;
+
+    @Value("${movies.autocomplete.max-results:20}")
+    private int maxResults;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Suggestions suggestions = new Suggestions(Titles.of(List.of()));
+    // Changes made while a rebuild is loading; replayed onto the new structure
+    private List<Consumer<Suggestions>> changesDuringBuild;
+    private volatile boolean ready;
+    private volatile long lastBuildMillis;
+    private final AtomicLong queries = new AtomicLong();
+
+    @Autowired
+    public MovieAutocompleteIndex(MovieRepository movieRepository, RatingRepository ratingRepository) {
+        this.movieRepository = movieRepository;
+        this.ratingRepository = ratingRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    // Loads every title and rating count and swaps the result in; suggestions keep
+    // coming from the old structure meanwhile. One rebuild at a time.
+    public synchronized Map<String, Object> rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changesDuringBuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Suggestions fresh;
+        try {
+            Map<Integer, Entry> entries = new HashMap<>();
+            long lastId = 0;
+            List<Object[]> page;
+            do {
+                // Only id, title and year; plots and ratings are never loaded
+                page = movieRepository.findTitlesAfter(lastId, PageRequest.of(0, buildPageSize));
+                for (Object[] row : page) {
+                    lastId = (Long) row[0];
+                    Entry entry = Entry.of(lastId, (String) row[1], (String) row[2], 0);
+                    if (entry != null) {
+                        entries.put(entry.id, entry);
+                    }
+                }
+            } while (page.size() == buildPageSize);
+            // Ratings given during the build may be counted twice; counts only order suggestions
+            for (Object[] row : ratingRepository.countByMovie()) {
+                Entry entry = entries.get(Math.toIntExact((Long) row[0]));
+                if (entry != null) {
+                    entry.weight = Math.toIntExact((Long) row[1]);
+                }
+            }
+            List<Entry> sorted = new ArrayList<>(entries.values());
+            sorted.sort(Entry.ORDER);
+            fresh = new Suggestions(Titles.of(sorted));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringBuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.error("Building the autocomplete index failed: {}", e.getMessage(), e);
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Consumer<Suggestions> change : changesDuringBuild) {
+                change.accept(fresh);
+            }
+            changesDuringBuild = null;
+            suggestions = fresh;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        lastBuildMillis = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Autocomplete index built: {} titles in {} ms", fresh.size(), lastBuildMillis);
+        return getStats();
+    }
+
+    public void add(Movie movie) {
+        addAll(List.of(movie));
+    }
+
+    public void addAll(Collection<Movie> movies) {
+        if (!enabled) {
+            return;
+        }
+        List<Entry> entries = new ArrayList<>(movies.size());
+        for (Movie movie : movies) {
+            if (movie.getId() != null) {
+                Entry entry = Entry.of(movie.getId(), movie.getTitle(), movie.getYear(), 0);
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+        }
+        apply(target -> entries.forEach(entry -> target.add(entry.copy())));
+    }
+
+    public void remove(Long movieId) {
+        removeAll(List.of(movieId));
+    }
+
+    public void removeAll(Collection<Long> movieIds) {
+        if (!enabled) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(movieIds);
+        apply(target -> ids.forEach(id -> target.remove(id.intValue())));
+    }
+
+    // A first rating of the movie by some user; moves it up in suggestions
+    public void addRating(Long movieId) {
+        if (enabled) {
+            apply(target -> target.addRating(movieId.intValue()));
+        }
+    }
+
+    private void apply(Consumer<Suggestions> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(suggestions);
+            if (changesDuringBuild != null) {
+                changesDuringBuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Titles starting with prefix (ignoring case), most-rated first, then alphabetically
+    public List<MovieSuggestion> suggest(String prefix, int limit) {
+        queries.incrementAndGet();
+        String normalized = prefix == null ? "" : prefix.strip();
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        int k = Math.max(1, Math.min(limit, maxResults));
+        lock.readLock().lock();
+        try {
+            List<MovieSuggestion> result = new ArrayList<>(k);
+            for (Entry entry : suggestions.top(normalized, k)) {
+                result.add(MovieSuggestion.of((long) entry.id, entry.title,
+                        entry.year == 0 ? null : (int) entry.year, entry.weight));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("enabled", enabled);
+            stats.put("ready", ready);
+            stats.put("titles", suggestions.size());
+            stats.put("runs", suggestions.runs.size());
+            stats.put("buffered", suggestions.pending.size());
+            stats.put("merges", suggestions.merges);
+            stats.put("lastBuildMs", lastBuildMillis);
+            stats.put("queries", queries.get());
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Orders as String.CASE_INSENSITIVE_ORDER does, char by char
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static int compareTitles(String a, String b) {
+        int n = Math.min(a.length(), b.length());
+        for (int i = 0; i < n; i++) {
+            char x = fold(a.charAt(i));
+            char y = fold(b.charAt(i));
+            if (x != y) {
+                return x - y;
+            }
+        }
+        return a.length() - b.length();
+    }
+
+    // 0 when title starts with prefix, otherwise where title sorts relative to the prefix range
+    private static int comparePrefix(String title, String prefix) {
+        int n = Math.min(title.length(), prefix.length());
+        for (int i = 0; i < n; i++) {
+            char x = fold(title.charAt(i));
+            char y = fold(prefix.charAt(i));
+            if (x != y) {
+                return x - y;
+            }
+        }
+        return title.length() < prefix.length() ? -1 : 0;
+    }
+
+    private static final class Entry {
+        static final Comparator<Entry> ORDER = ((Comparator<Entry>) (a, b) -> compareTitles(a.title, b.title))
+                .thenComparingInt(e -> e.id);
+        // Heaviest first; ties alphabetically, as the segment tree breaks them
+        static final Comparator<Entry> RANK = Comparator.<Entry>comparingInt(e -> e.weight).reversed()
+                .thenComparing(ORDER);
+
+        final int id;
+        final String title;
+        final short year;
+        int weight;
+
+        private Entry(int id, String title, short year, int weight) {
+            this.id = id;
+            this.title = title;
+            this.year = year;
+            this.weight = weight;
+        }
+
+        static Entry of(Long id, String title, String year, int weight) {
+            if (title == null || title.isBlank()) {
+                return null;
+            }
+            return new Entry(Math.toIntExact(id), title.strip(), parseYear(year), weight);
+        }
+
+        // Leading four digits of "2014" or "2014–2016"; 0 when there are none
+        private static short parseYear(String year) {
+            if (year == null || year.length() < 4) {
+                return 0;
+            }
+            for (int i = 0; i < 4; i++) {
+                if (!Character.isDigit(year.charAt(i))) {
+                    return 0;
+                }
+            }
+            return Short.parseShort(year.substring(0, 4));
+        }
+
+        Entry copy() {
+            return new Entry(id, title, year, weight);
+        }
+    }
+
+    // A sorted run of titles in parallel arrays. weights[i] is -1 once title i is removed.
+    private static final class Titles {
+        final String[] titles;
+        final int[] ids;
+        final short[] years;
+        final int[] weights;
+        // Positions ordered by movie id, to find a movie's position by binary search
+        final int[] byId;
+        // Leaves start at capacity; tree[node] = position of the heaviest live title under node, or -1
+        final int capacity;
+        final int[] tree;
+        int removed;
+
+        private Titles(int size) {
+            titles = new String[size];
+            ids = new int[size];
+            years = new short[size];
+            weights = new int[size];
+            byId = new int[size];
+            int c = 1;
+            while (c < size) {
+                c <<= 1;
+            }
+            capacity = c;
+            tree = new int[2 * c];
+        }
+
+        // entries must be in Entry.ORDER
+        static Titles of(List<Entry> entries) {
+            Titles t = new Titles(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                t.set(i, entry.id, entry.title, entry.year, entry.weight);
+            }
+            t.index();
+            return t;
+        }
+
+        // The live titles of both runs, in order
+        static Titles merge(Titles a, Titles b) {
+            Titles t = new Titles(a.live() + b.live());
+            int i = a.nextLive(0);
+            int j = b.nextLive(0);
+            int n = 0;
+            while (i < a.size() || j < b.size()) {
+                boolean fromA = j == b.size() || (i < a.size() && a.compare(i, b, j) < 0);
+                if (fromA) {
+                    t.set(n++, a.ids[i], a.titles[i], a.years[i], a.weights[i]);
+                    i = a.nextLive(i + 1);
+                } else {
+                    t.set(n++, b.ids[j], b.titles[j], b.years[j], b.weights[j]);
+                    j = b.nextLive(j + 1);
+                }
+            }
+            t.index();
+            return t;
+        }
+
+        private void set(int pos, int id, String title, short year, int weight) {
+            ids[pos] = id;
+            titles[pos] = title;
+            years[pos] = year;
+            weights[pos] = weight;
+        }
+
+        // Builds the segment tree and the id order once the arrays are filled
+        private void index() {
+            Arrays.fill(tree, -1);
+            long[] idAndPosition = new long[size()];
+            for (int i = 0; i < size(); i++) {
+                tree[capacity + i] = i;
+                idAndPosition[i] = (long) ids[i] << 32 | i;
+            }
+            for (int node = capacity - 1; node > 0; node--) {
+                tree[node] = heavier(tree[2 * node], tree[2 * node + 1]);
+            }
+            Arrays.sort(idAndPosition);
+            for (int i = 0; i < size(); i++) {
+                byId[i] = (int) idAndPosition[i];
+            }
+        }
+
+        int size() {
+            return titles.length;
+        }
+
+        int live() {
+            return size() - removed;
+        }
+
+        private int nextLive(int pos) {
+            while (pos < size() && weights[pos] < 0) {
+                pos++;
+            }
+            return pos;
+        }
+
+        private int compare(int pos, Titles other, int otherPos) {
+            int c = compareTitles(titles[pos], other.titles[otherPos]);
+            return c != 0 ? c : Integer.compare(ids[pos], other.ids[otherPos]);
+        }
+
+        Entry entry(int pos) {
+            return new Entry(ids[pos], titles[pos], years[pos], weights[pos]);
+        }
+
+        private int heavier(int a, int b) {
+            if (a < 0) {
+                return b;
+            }
+            if (b < 0) {
+                return a;
+            }
+            // a is left of b, so it wins ties
+            return weights[b] > weights[a] ? b : a;
+        }
+
+        int position(int id) {
+            int lo = 0;
+            int hi = byId.length - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int midId = ids[byId[mid]];
+                if (midId < id) {
+                    lo = mid + 1;
+                } else if (midId > id) {
+                    hi = mid - 1;
+                } else {
+                    return weights[byId[mid]] < 0 ? -1 : byId[mid];
+                }
+            }
+            return -1;
+        }
+
+        void setWeight(int pos, int weight) {
+            weights[pos] = weight;
+            int node = capacity + pos;
+            tree[node] = weight < 0 ? -1 : pos;
+            for (node >>= 1; node > 0; node >>= 1) {
+                tree[node] = heavier(tree[2 * node], tree[2 * node + 1]);
+            }
+        }
+
+        // First position whose title is not below the prefix range (cmp = -1) or is past it (cmp = 0)
+        int bound(String prefix, int cmp) {
+            int lo = 0;
+            int hi = titles.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (comparePrefix(titles[mid], prefix) <= cmp) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        // Heaviest k live titles starting with prefix, heaviest first
+        void top(String prefix, int k, List<Entry> out) {
+            int from = bound(prefix, -1);
+            int to = bound(prefix, 0);
+            PriorityQueue<Integer> nodes = new PriorityQueue<>((a, b) -> {
+                int x = tree[a];
+                int y = tree[b];
+                return weights[x] != weights[y] ? Integer.compare(weights[y], weights[x]) : Integer.compare(x, y);
+            });
+            for (int l = from + capacity, r = to + capacity; l < r; l >>= 1, r >>= 1) {
+                if ((l & 1) == 1) {
+                    offer(nodes, l++);
+                }
+                if ((r & 1) == 1) {
+                    offer(nodes, --r);
+                }
+            }
+            int found = 0;
+            while (found < k && !nodes.isEmpty()) {
+                int node = nodes.poll();
+                if (node >= capacity) {
+                    out.add(entry(tree[node]));
+                    found++;
+                } else {
+                    offer(nodes, 2 * node);
+                    offer(nodes, 2 * node + 1);
+                }
+            }
+        }
+
+        private void offer(PriorityQueue<Integer> nodes, int node) {
+            if (tree[node] >= 0) {
+                nodes.add(node);
+            }
+        }
+    }
+
+    // Sorted runs, largest first, plus the buffer of titles added since the last flush.
+    // Runs merge like a binary counter, so each title is copied O(log n) times in all
+    // and there are only O(log n) runs for a query to visit.
+    private final class Suggestions {
+        final List<Titles> runs = new ArrayList<>();
+        final List<Entry> pending = new ArrayList<>();
+        final Map<Integer, Entry> pendingById = new HashMap<>();
+        long merges;
+
+        Suggestions(Titles titles) {
+            if (titles.size() > 0) {
+                runs.add(titles);
+            }
+        }
+
+        int size() {
+            int size = pending.size();
+            for (Titles run : runs) {
+                size += run.live();
+            }
+            return size;
+        }
+
+        void add(Entry entry) {
+            // A re-added movie (say with a corrected title) keeps its rating count
+            Entry previous = removeEntry(entry.id);
+            if (previous != null) {
+                entry.weight = previous.weight;
+            }
+            int pos = Collections.binarySearch(pending, entry, Entry.ORDER);
+            pending.add(-pos - 1, entry);
+            pendingById.put(entry.id, entry);
+            if (pending.size() > mergeThreshold) {
+                flush();
+            }
+        }
+
+        void remove(int id) {
+            removeEntry(id);
+            int removed = 0;
+            for (Titles run : runs) {
+                removed += run.removed;
+            }
+            // Removed titles stay in their runs as tombstones until enough pile up
+            if (removed > Math.max(mergeThreshold, size() / 4)) {
+                Titles all = Titles.of(List.of());
+                for (Titles run : runs) {
+                    all = Titles.merge(all, run);
+                }
+                runs.clear();
+                runs.add(all);
+                merges++;
+            }
+        }
+
+        private Entry removeEntry(int id) {
+            Entry entry = pendingById.remove(id);
+            if (entry != null) {
+                pending.remove(Collections.binarySearch(pending, entry, Entry.ORDER));
+                return entry;
+            }
+            for (Titles run : runs) {
+                int pos = run.position(id);
+                if (pos >= 0) {
+                    Entry removedEntry = run.entry(pos);
+                    run.setWeight(pos, -1);
+                    run.removed++;
+                    return removedEntry;
+                }
+            }
+            return null;
+        }
+
+        void addRating(int id) {
+            Entry entry = pendingById.get(id);
+            if (entry != null) {
+                entry.weight++;
+                return;
+            }
+            for (Titles run : runs) {
+                int pos = run.position(id);
+                if (pos >= 0) {
+                    run.setWeight(pos, run.weights[pos] + 1);
+                    return;
+                }
+            }
+        }
+
+        // Turns the buffer into a run, merging it into the smaller runs before it
+        private void flush() {
+            Titles run = Titles.of(pending);
+            pending.clear();
+            pendingById.clear();
+            while (!runs.isEmpty() && runs.get(runs.size() - 1).live() <= run.live()) {
+                run = Titles.merge(runs.remove(runs.size() - 1), run);
+                merges++;
+            }
+            runs.add(run);
+        }
+
+        List<Entry> top(String prefix, int k) {
+            List<Entry> result = new ArrayList<>();
+            for (Titles run : runs) {
+                run.top(prefix, k, result);
+            }
+            // The buffer is small; scan its prefix range
+            int lo = 0;
+            int hi = pending.size();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (comparePrefix(pending.get(mid).title, prefix) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            for (int i = lo; i < pending.size() && comparePrefix(pending.get(i).title, prefix) == 0; i++) {
+                result.add(pending.get(i));
+            }
+            result.sort(Entry.RANK);
+            return result.size() > k ? new ArrayList<>(result.subList(0, k)) : result;
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.example.moviecatalog.service;
+
+import com.example.moviecatalog.model.Movie;
+import com.example.moviecatalog.repository.MovieRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// Faceted browsing over the catalog from memory. Every facet value (genre "Action",
+// decade "2010s", language "English", ...) has a MovieIdBitmap of the movies that
+// have it; the comma-joined genre, language and country columns are split into
+// their values. A query ORs the selected values within a facet and ANDs across
+// facets; each facet's counts are taken against the other facets' selections, so
+// picking "Action" still shows how many "Comedy" movies there are.
+@Component
+public class MovieFacetIndex {
+    private static final Logger logger = LoggerFactory.getLogger(MovieFacetIndex.class);
+
+    public static final List<String> FACETS = List.of("genre", "decade", "year", "language", "country", "rated");
+
+    private final MovieRepository movieRepository;
+
+    @Value("${movies.facets.enabled:true}")
+    private boolean enabled;
+
+    // Movies loaded per query while building
+    @Value("${movies.facets.build-page-size:5000}")
+    private int buildPageSize;
+
+    // Values listed per facet, highest count first
+    @Value("${movies.facets.max-values:50}")
+    private int maxValues;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Facets facets = new Facets();
+    // Adds and removes made while a rebuild is loading; replayed onto the new facets
+    private List<Consumer<Facets>> changesDuringBuild;
+    private volatile boolean ready;
+    private volatile long lastBuildMillis;
+    private final AtomicLong queries = new AtomicLong();
+
+    @Autowired
+    public MovieFacetIndex(MovieRepository movieRepository) {
+        this.movieRepository = movieRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    // Loads the facet columns of every movie and swaps the result in; queries keep
+    // using the old bitmaps meanwhile. One rebuild at a time.
+    public synchronized Map<String, Object> rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changesDuringBuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Facets fresh = new Facets();
+        try {
+            long lastId = 0;
+            List<Object[]> page;
+            do {
+                page = movieRepository.findFacetFieldsAfter(lastId, PageRequest.of(0, buildPageSize));
+                for (Object[] row : page) {
+                    lastId = (Long) row[0];
+                    fresh.add(Entry.of(lastId, (String) row[1], (String) row[2], (String) row[3],
+                            (String) row[4], (String) row[5]));
+                }
+            } while (page.size() == buildPageSize);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringBuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.error("Building the facet index failed: {}", e.getMessage(), e);
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changesDuringBuild.forEach(change -> change.accept(fresh));
+            changesDuringBuild = null;
+            facets = fresh;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        lastBuildMillis = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Facet index built: {} movies in {} ms", fresh.all.cardinality(), lastBuildMillis);
+        return getStats();
+    }
+
+    public void add(Movie movie) {
+        addAll(List.of(movie));
+    }
+
+    public void addAll(Collection<Movie> movies) {
+        if (!enabled) {
+            return;
+        }
+        List<Entry> entries = new ArrayList<>(movies.size());
+        for (Movie movie : movies) {
+            if (movie.getId() != null) {
+                entries.add(Entry.of(movie.getId(), movie.getGenre(), movie.getYear(), movie.getLanguage(),
+                        movie.getCountry(), movie.getRated()));
+            }
+        }
+        apply(target -> entries.forEach(target::add));
+    }
+
+    public void remove(Long movieId) {
+        removeAll(List.of(movieId));
+    }
+
+    public void removeAll(Collection<Long> movieIds) {
+        if (!enabled) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(movieIds);
+        apply(target -> ids.forEach(id -> target.remove(Math.toIntExact(id))));
+    }
+
+    private void apply(Consumer<Facets> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(facets);
+            if (changesDuringBuild != null) {
+                changesDuringBuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Movie ids matching the filters (facet -> accepted values, case-insensitive),
+    // one page of them in id order, and per-facet value counts
+    public Map<String, Object> query(Map<String, List<String>> filters, int offset, int limit) {
+        long start = System.nanoTime();
+        queries.incrementAndGet();
+        Map<String, Object> result = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            // Union of the selected values per filtered facet
+            Map<String, MovieIdBitmap> selected = new LinkedHashMap<>();
+            filters.forEach((facet, labels) -> {
+                Map<String, FacetValue> facetValues = facets.values.get(facet);
+                MovieIdBitmap union = new MovieIdBitmap();
+                for (String label : labels) {
+                    FacetValue value = facetValues.get(label.strip().toLowerCase(Locale.ROOT));
+                    if (value != null) {
+                        union = union.isEmpty() ? value.ids : MovieIdBitmap.or(union, value.ids);
+                    }
+                }
+                selected.put(facet, union);
+            });
+
+            MovieIdBitmap matches = intersect(selected, null);
+            List<Long> movieIds = new ArrayList<>();
+            for (int id : matches.page(offset, limit)) {
+                movieIds.add((long) id);
+            }
+
+            // Facets without a filter all count against the matches, so they share one pass
+            List<String> unfiltered = FACETS.stream().filter(facet -> !selected.containsKey(facet)).toList();
+            int[] matchCounts = unfiltered.isEmpty() ? null : facets.count(matches, unfiltered);
+            Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+            for (String facet : FACETS) {
+                int[] valueCounts = selected.containsKey(facet)
+                        ? facets.count(intersect(selected, facet), List.of(facet)) : matchCounts;
+                List<FacetValue> values = new ArrayList<>();
+                for (FacetValue value : facets.values.get(facet).values()) {
+                    if (valueCounts[value.ordinal] > 0) {
+                        values.add(value);
+                    }
+                }
+                values.sort((a, b) -> valueCounts[a.ordinal] != valueCounts[b.ordinal]
+                        ? valueCounts[b.ordinal] - valueCounts[a.ordinal] : a.label.compareTo(b.label));
+                Map<String, Integer> facetCounts = new LinkedHashMap<>();
+                for (FacetValue value : values.subList(0, Math.min(values.size(), maxValues))) {
+                    facetCounts.put(value.label, valueCounts[value.ordinal]);
+                }
+                counts.put(facet, facetCounts);
+            }
+
+            result.put("total", matches.cardinality());
+            result.put("movieIds", movieIds);
+            result.put("facets", counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.put("tookMicros", (System.nanoTime() - start) / 1_000);
+        return result;
+    }
+
+    // AND of the selections of every facet but the excluded one; all movies when none apply
+    private MovieIdBitmap intersect(Map<String, MovieIdBitmap> selected, String excluded) {
+        MovieIdBitmap result = facets.all;
+        for (Map.Entry<String, MovieIdBitmap> selection : selected.entrySet()) {
+            if (!selection.getKey().equals(excluded)) {
+                result = MovieIdBitmap.and(result, selection.getValue());
+            }
+        }
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            long bytes = facets.all.sizeInBytes();
+            Map<String, Integer> valueCounts = new LinkedHashMap<>();
+            for (String facet : FACETS) {
+                valueCounts.put(facet, facets.values.get(facet).size());
+                for (FacetValue value : facets.values.get(facet).values()) {
+                    bytes += value.ids.sizeInBytes();
+                }
+            }
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("enabled", enabled);
+            stats.put("ready", ready);
+            stats.put("movies", facets.all.cardinality());
+            stats.put("values", valueCounts);
+            stats.put("bitmapBytes", bytes);
+            stats.put("lastBuildMs", lastBuildMillis);
+            stats.put("queries", queries.get());
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // A movie's facet values, in FACETS order
+    private static final class Entry {
+        final int id;
+        final List<List<String>> values = new ArrayList<>(FACETS.size());
+
+        private Entry(int id) {
+            this.id = id;
+        }
+
+        static Entry of(Long id, String genre, String year, String language, String country, String rated) {
+            Entry entry = new Entry(Math.toIntExact(id));
+            String fullYear = year != null && year.length() >= 4 && year.substring(0, 4).chars().allMatch(Character::isDigit)
+                    ? year.substring(0, 4) : null;
+            entry.values.add(split(genre));
+            entry.values.add(fullYear == null ? List.of() : List.of(fullYear.substring(0, 3) + "0s"));
+            entry.values.add(fullYear == null ? List.of() : List.of(fullYear));
+            entry.values.add(split(language));
+            entry.values.add(split(country));
+            entry.values.add(split(rated));
+            return entry;
+        }
+
+        // "Action, Adventure" -> [Action, Adventure]; OMDB's "N/A" means no value
+        private static List<String> split(String field) {
+            List<String> values = new ArrayList<>();
+            if (field == null) {
+                return values;
+            }
+            for (String part : field.split(",")) {
+                String value = part.strip();
+                if (!value.isEmpty() && !value.equalsIgnoreCase("N/A")) {
+                    values.add(value);
+                }
+            }
+            return values;
+        }
+    }
+
+    private static final class FacetValue {
+        final int ordinal;
+        final String label;
+        final MovieIdBitmap ids = new MovieIdBitmap();
+
+        FacetValue(int ordinal, String label) {
+            this.ordinal = ordinal;
+            this.label = label;
+        }
+    }
+
+    private static final class Facets {
+        // Counting by walking the movies beats a bitmap intersection per value below this share of the catalog
+        private static final int WALK_FRACTION = 4;
+
+        final MovieIdBitmap all = new MovieIdBitmap();
+        // Facet -> lower-cased value -> value. Values stay once created, so ordinals are stable.
+        final Map<String, Map<String, FacetValue>> values = new HashMap<>();
+        final List<FacetValue> byOrdinal = new ArrayList<>();
+        // Value ordinals of each movie, indexed by movie id: what to clear on removal,
+        // and how to count a small set of movies without touching every value bitmap
+        char[][] valuesById = new char[1024][];
+
+        Facets() {
+            for (String facet : FACETS) {
+                values.put(facet, new HashMap<>());
+            }
+        }
+
+        void add(Entry entry) {
+            // An already indexed movie may have changed; drop its old values first
+            remove(entry.id);
+            all.add(entry.id);
+            char[] ordinals = new char[entry.values.stream().mapToInt(List::size).sum()];
+            int n = 0;
+            for (int f = 0; f < FACETS.size(); f++) {
+                Map<String, FacetValue> facetValues = values.get(FACETS.get(f));
+                for (String label : entry.values.get(f)) {
+                    FacetValue value = facetValues.computeIfAbsent(label.toLowerCase(Locale.ROOT), key -> {
+                        if (byOrdinal.size() > Character.MAX_VALUE) {
+                            throw new IllegalStateException("Too many distinct facet values");
+                        }
+                        FacetValue created = new FacetValue(byOrdinal.size(), label);
+                        byOrdinal.add(created);
+                        return created;
+                    });
+                    if (value.ids.add(entry.id)) {
+                        ordinals[n++] = (char) value.ordinal;
+                    }
+                }
+            }
+            if (entry.id >= valuesById.length) {
+                valuesById = Arrays.copyOf(valuesById, Math.max(entry.id + 1, valuesById.length * 2));
+            }
+            valuesById[entry.id] = n == ordinals.length ? ordinals : Arrays.copyOf(ordinals, n);
+        }
+
+        void remove(int id) {
+            if (id >= valuesById.length || valuesById[id] == null) {
+                return;
+            }
+            for (char ordinal : valuesById[id]) {
+                byOrdinal.get(ordinal).ids.remove(id);
+            }
+            valuesById[id] = null;
+            all.remove(id);
+        }
+
+        // Movies in base per value ordinal, for (at least) the values of the given facets
+        int[] count(MovieIdBitmap base, List<String> facets) {
+            int[] counts = new int[byOrdinal.size()];
+            if (base == all) {
+                for (FacetValue value : byOrdinal) {
+                    counts[value.ordinal] = value.ids.cardinality();
+                }
+            } else if (base.cardinality() < all.cardinality() / WALK_FRACTION) {
+                base.forEach(id -> {
+                    for (char ordinal : valuesById[id]) {
+                        counts[ordinal]++;
+                    }
+                });
+            } else {
+                for (String facet : facets) {
+                    for (FacetValue value : values.get(facet).values()) {
+                        counts[value.ordinal] = MovieIdBitmap.andCardinality(value.ids, base);
+                    }
+                }
+            }
+            return counts;
+        }
+    }
+}
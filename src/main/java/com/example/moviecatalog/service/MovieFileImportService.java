@@ -0,0 +1,87 @@
+package com.example.moviecatalog.service;
+
+import com.example.moviecatalog.model.MovieImportResult;
+import com.example.moviecatalog.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Imports a catalog file (CSV of IMDB IDs and/or NDJSON OMDB records) of any size.
+// The body is streamed through MovieImportReader and every chunk goes through
+// MovieService like a /movies/batch request; only counters and the first
+// failures are kept, so memory does not grow with the file.
+@Service
+public class MovieFileImportService {
+    private static final Logger logger = LoggerFactory.getLogger(MovieFileImportService.class);
+
+    private final MovieService movieService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${movies.import.file-chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${movies.import.file-max-reported-failures:100}")
+    private int maxReportedFailures;
+
+    @Autowired
+    public MovieFileImportService(MovieService movieService, ObjectMapper objectMapper) {
+        this.movieService = movieService;
+        this.objectMapper = objectMapper;
+    }
+
+    public Map<String, Object> importFile(InputStream in, User admin) throws IOException {
+        long start = System.nanoTime();
+        MovieImportReader reader = new MovieImportReader(objectMapper.reader(), chunkSize)
+                .maxInvalidLines(maxReportedFailures);
+        Map<MovieImportResult.Status, Long> counts = new EnumMap<>(MovieImportResult.Status.class);
+        List<MovieImportResult> failures = new ArrayList<>();
+
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            reader.read(lines,
+                    ids -> tally(movieService.addMovies(ids, admin), counts, failures),
+                    records -> tally(movieService.addMovieRecords(records, admin), counts, failures));
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        long imported = reader.getIds() + reader.getRecords();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("lines", reader.getLines());
+        summary.put("ids", reader.getIds());
+        summary.put("records", reader.getRecords());
+        summary.put("invalidLines", reader.getInvalid());
+        summary.put("added", counts.getOrDefault(MovieImportResult.Status.ADDED, 0L));
+        summary.put("existing", counts.getOrDefault(MovieImportResult.Status.EXISTING, 0L));
+        summary.put("failed", counts.getOrDefault(MovieImportResult.Status.FAILED, 0L));
+        summary.put("elapsedMs", elapsedMillis);
+        summary.put("moviesPerSecond", elapsedMillis == 0 ? 0.0 : Math.round(imported * 10000.0 / elapsedMillis) / 10.0);
+        summary.put("firstInvalidLines", reader.getInvalidLines());
+        summary.put("firstFailures", failures);
+        logger.info("File import: {} lines, {} added, {} existing, {} failed, {} invalid in {} ms", reader.getLines(),
+                summary.get("added"), summary.get("existing"), summary.get("failed"), reader.getInvalid(), elapsedMillis);
+        return summary;
+    }
+
+    private void tally(List<MovieImportResult> results, Map<MovieImportResult.Status, Long> counts,
+                       List<MovieImportResult> failures) {
+        for (MovieImportResult result : results) {
+            counts.merge(result.getStatus(), 1L, Long::sum);
+            if (result.getStatus() == MovieImportResult.Status.FAILED && failures.size() < maxReportedFailures) {
+                failures.add(result);
+            }
+        }
+    }
+}
@@ -0,0 +1,493 @@
+package com.example.moviecatalog.service;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Compressed set of int movie ids, laid out like a Roaring bitmap: ids are split
+// by their high 16 bits into chunks, and each chunk holds the low 16 bits either
+// as a sorted char[] (up to 4096 ids, 2 bytes each) or as a 1024-word bitset
+// (8 KB, for denser chunks). Intersections work chunk by chunk as a sorted merge,
+// a bit probe or a word-wise AND, and can be counted without building a result.
+public final class MovieIdBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+    // Array intersections gallop through the larger side past this size ratio
+    private static final int GALLOP_RATIO = 8;
+
+    // Chunk keys in ascending order; containers[i] is a char[] or a long[WORDS]
+    private char[] keys = new char[4];
+    private Object[] containers = new Object[4];
+    // Ids in each chunk; also the used length of char[] containers
+    private int[] counts = new int[4];
+    private int size;
+    private int cardinality;
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    public boolean contains(int id) {
+        int i = find((char) (id >>> 16));
+        if (i < 0) {
+            return false;
+        }
+        char low = (char) id;
+        Object container = containers[i];
+        if (container instanceof long[] bits) {
+            return (bits[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) container, 0, counts[i], low) >= 0;
+    }
+
+    public boolean add(int id) {
+        char high = (char) (id >>> 16);
+        char low = (char) id;
+        int i = find(high);
+        if (i < 0) {
+            i = -i - 1;
+            insert(i, high, new char[4], 0);
+        }
+        Object container = containers[i];
+        if (container instanceof long[] bits) {
+            if ((bits[low >>> 6] & (1L << low)) != 0) {
+                return false;
+            }
+            bits[low >>> 6] |= 1L << low;
+        } else {
+            char[] values = (char[]) container;
+            int n = counts[i];
+            int pos = Arrays.binarySearch(values, 0, n, low);
+            if (pos >= 0) {
+                return false;
+            }
+            if (n == ARRAY_MAX) {
+                long[] bits = toBits(values, n);
+                bits[low >>> 6] |= 1L << low;
+                containers[i] = bits;
+            } else {
+                pos = -pos - 1;
+                if (n == values.length) {
+                    values = Arrays.copyOf(values, Math.min(ARRAY_MAX, n * 2));
+                    containers[i] = values;
+                }
+                System.arraycopy(values, pos, values, pos + 1, n - pos);
+                values[pos] = low;
+            }
+        }
+        counts[i]++;
+        cardinality++;
+        return true;
+    }
+
+    public boolean remove(int id) {
+        int i = find((char) (id >>> 16));
+        if (i < 0) {
+            return false;
+        }
+        char low = (char) id;
+        Object container = containers[i];
+        if (container instanceof long[] bits) {
+            if ((bits[low >>> 6] & (1L << low)) == 0) {
+                return false;
+            }
+            bits[low >>> 6] &= ~(1L << low);
+            // Back to an array well below the limit, so add/remove at the edge does not flip-flop
+            if (counts[i] - 1 <= ARRAY_MAX / 2) {
+                containers[i] = toValues(bits, counts[i] - 1);
+            }
+        } else {
+            char[] values = (char[]) container;
+            int n = counts[i];
+            int pos = Arrays.binarySearch(values, 0, n, low);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(values, pos + 1, values, pos, n - pos - 1);
+        }
+        cardinality--;
+        if (--counts[i] == 0) {
+            System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+            System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+            System.arraycopy(counts, i + 1, counts, i, size - i - 1);
+            containers[--size] = null;
+        }
+        return true;
+    }
+
+    // Ids in both bitmaps
+    public static MovieIdBitmap and(MovieIdBitmap a, MovieIdBitmap b) {
+        MovieIdBitmap result = new MovieIdBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                Object container = and(a.containers[i], a.counts[i], b.containers[j], b.counts[j]);
+                if (container != null) {
+                    result.append(a.keys[i], container);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    // Size of and(a, b), without building it
+    public static int andCardinality(MovieIdBitmap a, MovieIdBitmap b) {
+        int total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                total += andCount(a.containers[i], a.counts[i], b.containers[j], b.counts[j]);
+                i++;
+                j++;
+            }
+        }
+        return total;
+    }
+
+    // Ids in either bitmap
+    public static MovieIdBitmap or(MovieIdBitmap a, MovieIdBitmap b) {
+        MovieIdBitmap result = new MovieIdBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            if (j == b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+                result.append(a.keys[i], copy(a.containers[i], a.counts[i]));
+                i++;
+            } else if (i == a.size || a.keys[i] > b.keys[j]) {
+                result.append(b.keys[j], copy(b.containers[j], b.counts[j]));
+                j++;
+            } else {
+                result.append(a.keys[i], or(a.containers[i], a.counts[i], b.containers[j], b.counts[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public MovieIdBitmap copy() {
+        MovieIdBitmap result = new MovieIdBitmap();
+        for (int i = 0; i < size; i++) {
+            result.append(keys[i], copy(containers[i], counts[i]));
+        }
+        return result;
+    }
+
+    // Every id, in ascending order
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            int high = keys[i] << 16;
+            Object container = containers[i];
+            if (container instanceof long[] bits) {
+                for (int w = 0; w < WORDS; w++) {
+                    long word = bits[w];
+                    while (word != 0) {
+                        action.accept(high | (w << 6) | Long.numberOfTrailingZeros(word));
+                        word &= word - 1;
+                    }
+                }
+            } else {
+                char[] values = (char[]) container;
+                for (int v = 0; v < counts[i]; v++) {
+                    action.accept(high | values[v]);
+                }
+            }
+        }
+    }
+
+    // Up to limit ids in ascending order, skipping the first offset
+    public int[] page(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset and limit must not be negative: " + offset + ", " + limit);
+        }
+        int[] page = new int[Math.max(0, Math.min(limit, cardinality - offset))];
+        int n = 0;
+        int skip = offset;
+        for (int i = 0; i < size && n < page.length; i++) {
+            if (skip >= counts[i]) {
+                skip -= counts[i];
+                continue;
+            }
+            int high = keys[i] << 16;
+            Object container = containers[i];
+            if (container instanceof long[] bits) {
+                for (int w = 0; w < WORDS && n < page.length; w++) {
+                    long word = bits[w];
+                    while (word != 0 && n < page.length) {
+                        if (skip > 0) {
+                            skip--;
+                        } else {
+                            page[n++] = high | (w << 6) | Long.numberOfTrailingZeros(word);
+                        }
+                        word &= word - 1;
+                    }
+                }
+            } else {
+                char[] values = (char[]) container;
+                for (int v = skip; v < counts[i] && n < page.length; v++) {
+                    page[n++] = high | values[v];
+                }
+                skip = 0;
+            }
+        }
+        return page;
+    }
+
+    // Approximate heap footprint of the containers
+    public long sizeInBytes() {
+        long bytes = 16 + keys.length * 2L + containers.length * 4L + counts.length * 4L;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i] instanceof long[] ? WORDS * 8L + 16 : ((char[]) containers[i]).length * 2L + 16;
+        }
+        return bytes;
+    }
+
+    private int find(char key) {
+        int lo = 0;
+        int hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < key) {
+                lo = mid + 1;
+            } else if (keys[mid] > key) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    private void insert(int i, char key, Object container, int count) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+            counts = Arrays.copyOf(counts, size * 2);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        System.arraycopy(counts, i, counts, i + 1, size - i);
+        keys[i] = key;
+        containers[i] = container;
+        counts[i] = count;
+        size++;
+    }
+
+    // Adds a chunk past the last one; container is an exact-length char[] or a long[]
+    private void append(char key, Object container) {
+        int count = container instanceof long[] bits ? count(bits) : ((char[]) container).length;
+        insert(size, key, container, count);
+        cardinality += count;
+    }
+
+    private static Object and(Object x, int nx, Object y, int ny) {
+        if (x instanceof long[] xb && y instanceof long[] yb) {
+            long[] bits = new long[WORDS];
+            int count = 0;
+            for (int w = 0; w < WORDS; w++) {
+                bits[w] = xb[w] & yb[w];
+                count += Long.bitCount(bits[w]);
+            }
+            return count == 0 ? null : count <= ARRAY_MAX ? toValues(bits, count) : bits;
+        }
+        if (x instanceof long[]) {
+            return and(y, ny, x, nx);
+        }
+        char[] xv = (char[]) x;
+        char[] result = new char[Math.min(nx, y instanceof long[] ? nx : ny)];
+        int n = 0;
+        if (y instanceof long[] yb) {
+            for (int i = 0; i < nx; i++) {
+                result[n] = xv[i];
+                n += (int) (yb[xv[i] >>> 6] >>> xv[i]) & 1;
+            }
+        } else {
+            char[] yv = (char[]) y;
+            if (nx * GALLOP_RATIO < ny || ny * GALLOP_RATIO < nx) {
+                char[] small = nx < ny ? xv : yv;
+                char[] large = nx < ny ? yv : xv;
+                int ns = Math.min(nx, ny);
+                int nl = Math.max(nx, ny);
+                int j = 0;
+                for (int i = 0; i < ns && j < nl; i++) {
+                    j = advance(large, j, nl, small[i]);
+                    if (j < nl && large[j] == small[i]) {
+                        result[n++] = small[i];
+                    }
+                }
+            } else {
+                int i = 0;
+                int j = 0;
+                while (i < nx && j < ny) {
+                    if (xv[i] < yv[j]) {
+                        i++;
+                    } else if (xv[i] > yv[j]) {
+                        j++;
+                    } else {
+                        result[n++] = xv[i];
+                        i++;
+                        j++;
+                    }
+                }
+            }
+        }
+        return n == 0 ? null : Arrays.copyOf(result, n);
+    }
+
+    private static int andCount(Object x, int nx, Object y, int ny) {
+        if (x instanceof long[] xb && y instanceof long[] yb) {
+            int count = 0;
+            for (int w = 0; w < WORDS; w++) {
+                count += Long.bitCount(xb[w] & yb[w]);
+            }
+            return count;
+        }
+        if (x instanceof long[]) {
+            return andCount(y, ny, x, nx);
+        }
+        char[] xv = (char[]) x;
+        int count = 0;
+        if (y instanceof long[] yb) {
+            // Branch-free: whether each value is present is unpredictable
+            for (int i = 0; i < nx; i++) {
+                count += (int) (yb[xv[i] >>> 6] >>> xv[i]) & 1;
+            }
+            return count;
+        }
+        char[] yv = (char[]) y;
+        if (ny < nx) {
+            return andCount(y, ny, x, nx);
+        }
+        if (nx * GALLOP_RATIO < ny) {
+            // Much smaller side: leap through the larger one instead of walking all of it
+            int j = 0;
+            for (int i = 0; i < nx && j < ny; i++) {
+                j = advance(yv, j, ny, xv[i]);
+                if (j < ny && yv[j] == xv[i]) {
+                    count++;
+                }
+            }
+            return count;
+        }
+        // Branch-free merge; which side advances is as unpredictable as a coin flip
+        int i = 0;
+        int j = 0;
+        while (i < nx && j < ny) {
+            char a = xv[i];
+            char b = yv[j];
+            count += a == b ? 1 : 0;
+            i += a <= b ? 1 : 0;
+            j += a >= b ? 1 : 0;
+        }
+        return count;
+    }
+
+    // First index at or after from whose value is >= target: doubling steps, then binary search
+    private static int advance(char[] values, int from, int n, char target) {
+        if (from >= n || values[from] >= target) {
+            return from;
+        }
+        int step = 1;
+        int lo = from;
+        int hi = from + 1;
+        while (hi < n && values[hi] < target) {
+            lo = hi;
+            step <<= 1;
+            hi = from + step;
+        }
+        hi = Math.min(hi, n);
+        // values[lo] < target, and values[hi] >= target or hi == n
+        while (lo + 1 < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < target) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        return hi;
+    }
+
+    private static Object or(Object x, int nx, Object y, int ny) {
+        if (x instanceof long[] || y instanceof long[]) {
+            long[] bits = x instanceof long[] xb ? xb.clone() : toBits((char[]) x, nx);
+            if (y instanceof long[] yb) {
+                for (int w = 0; w < WORDS; w++) {
+                    bits[w] |= yb[w];
+                }
+            } else {
+                char[] yv = (char[]) y;
+                for (int i = 0; i < ny; i++) {
+                    bits[yv[i] >>> 6] |= 1L << yv[i];
+                }
+            }
+            return bits;
+        }
+        char[] xv = (char[]) x;
+        char[] yv = (char[]) y;
+        char[] result = new char[nx + ny];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < nx || j < ny) {
+            if (j == ny || (i < nx && xv[i] < yv[j])) {
+                result[n++] = xv[i++];
+            } else if (i == nx || xv[i] > yv[j]) {
+                result[n++] = yv[j++];
+            } else {
+                result[n++] = xv[i++];
+                j++;
+            }
+        }
+        return n > ARRAY_MAX ? toBits(result, n) : Arrays.copyOf(result, n);
+    }
+
+    private static Object copy(Object container, int count) {
+        return container instanceof long[] bits ? bits.clone() : Arrays.copyOf((char[]) container, count);
+    }
+
+    private static long[] toBits(char[] values, int n) {
+        long[] bits = new long[WORDS];
+        for (int i = 0; i < n; i++) {
+            bits[values[i] >>> 6] |= 1L << values[i];
+        }
+        return bits;
+    }
+
+    private static char[] toValues(long[] bits, int count) {
+        char[] values = new char[count];
+        int n = 0;
+        for (int w = 0; w < WORDS; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                values[n++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return values;
+    }
+
+    private static int count(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
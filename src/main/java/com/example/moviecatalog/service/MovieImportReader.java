@@ -0,0 +1,187 @@
+package com.example.moviecatalog.service;
+
+import com.example.moviecatalog.model.OmdbResponse;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+// Reads an import file line by line and hands it on in chunks of at most chunkSize,
+// so only one chunk is ever held in memory whatever the file size.
+// Each line is either
+//   - a full OMDB details record as one JSON object (NDJSON), or
+//   - a CSV row with the IMDB ID in the imdbID column, or the first column without a header.
+//     Fields may be double-quoted to hold commas ("" is a literal quote); a quoted field
+//     cannot span lines.
+// Both kinds may be mixed in one file. Lines that are neither are counted as invalid.
+public class MovieImportReader {
+
+    private static final Pattern IMDB_ID = Pattern.compile("tt\\d+");
+
+    private final ObjectReader recordReader;
+    private final int chunkSize;
+
+    private long lines;
+    private long ids;
+    private long records;
+    private long invalid;
+    private final List<Long> invalidLines = new ArrayList<>();
+    private int maxInvalidLines = 100;
+
+    public MovieImportReader(ObjectReader recordReader, int chunkSize) {
+        this.recordReader = recordReader.forType(OmdbResponse.class);
+        this.chunkSize = chunkSize;
+    }
+
+    public MovieImportReader maxInvalidLines(int maxInvalidLines) {
+        this.maxInvalidLines = maxInvalidLines;
+        return this;
+    }
+
+    public void read(BufferedReader reader, Consumer<List<String>> idChunks,
+                     Consumer<List<OmdbResponse>> recordChunks) throws IOException {
+        List<String> idChunk = new ArrayList<>(chunkSize);
+        List<OmdbResponse> recordChunk = new ArrayList<>(chunkSize);
+        int idColumn = 0;
+        boolean firstRow = true;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lines++;
+            String trimmed = line.strip();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+
+            if (trimmed.charAt(0) == '{') {
+                OmdbResponse record = parseRecord(trimmed);
+                if (record == null) {
+                    invalid();
+                    continue;
+                }
+                records++;
+                recordChunk.add(record);
+                if (recordChunk.size() >= chunkSize) {
+                    recordChunks.accept(recordChunk);
+                    recordChunk = new ArrayList<>(chunkSize);
+                }
+                continue;
+            }
+
+            List<String> columns = splitCsv(trimmed);
+            if (firstRow) {
+                firstRow = false;
+                int header = headerColumn(columns);
+                if (header >= 0) {
+                    idColumn = header;
+                    continue;
+                }
+            }
+            String imdbId = idColumn < columns.size() ? columns.get(idColumn) : "";
+            if (!IMDB_ID.matcher(imdbId).matches()) {
+                invalid();
+                continue;
+            }
+            ids++;
+            idChunk.add(imdbId);
+            if (idChunk.size() >= chunkSize) {
+                idChunks.accept(idChunk);
+                idChunk = new ArrayList<>(chunkSize);
+            }
+        }
+
+        if (!idChunk.isEmpty()) {
+            idChunks.accept(idChunk);
+        }
+        if (!recordChunk.isEmpty()) {
+            recordChunks.accept(recordChunk);
+        }
+    }
+
+    private OmdbResponse parseRecord(String json) {
+        try {
+            OmdbResponse record = recordReader.readValue(json);
+            if (record.getImdbId() == null || !IMDB_ID.matcher(record.getImdbId()).matches()
+                    || record.getTitle() == null || "False".equalsIgnoreCase(record.getResponse())) {
+                return null;
+            }
+            return record;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void invalid() {
+        invalid++;
+        if (invalidLines.size() < maxInvalidLines) {
+            invalidLines.add(lines);
+        }
+    }
+
+    // Index of the imdbID column when the row is a header, otherwise -1
+    private static int headerColumn(List<String> columns) {
+        for (int i = 0; i < columns.size(); i++) {
+            String name = columns.get(i).toLowerCase(Locale.ROOT);
+            if (name.equals("imdbid") || name.equals("imdb_id") || name.equals("imdb id")) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Fields of one CSV row, stripped and unquoted; commas inside quotes do not split
+    static List<String> splitCsv(String row) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < row.length(); i++) {
+            char c = row.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < row.length() && row.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"' && field.toString().isBlank()) {
+                field.setLength(0);
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().strip());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().strip());
+        return fields;
+    }
+
+    public long getLines() {
+        return lines;
+    }
+
+    public long getIds() {
+        return ids;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public long getInvalid() {
+        return invalid;
+    }
+
+    // Line numbers of the first invalid lines
+    public List<Long> getInvalidLines() {
+        return invalidLines;
+    }
+}
@@ -0,0 +1,511 @@
+package com.example.moviecatalog.service;
+
+import com.example.moviecatalog.model.Movie;
+import com.example.moviecatalog.model.MovieSearchHit;
+import com.example.moviecatalog.repository.MovieRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+// In-process inverted index over the catalog, so search never touches PostgreSQL.
+// Terms from title, actors, director, genre, language and country map to posting
+// lists of int movie ids (sorted, with term frequencies in a parallel int array).
+// Queries are AND/OR over terms, ranked with BM25. The index is built from
+// MovieRepository once the application is ready and MovieService keeps it current
+// on every add and remove.
+@Component
+public class MovieSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(MovieSearchIndex.class);
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // A title term counts three times, a director or actor term twice
+    private static final int TITLE_WEIGHT = 3;
+    private static final int PEOPLE_WEIGHT = 2;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private final MovieRepository movieRepository;
+
+    @Value("${movies.search.index.enabled:true}")
+    private boolean enabled;
+
+    // Movies loaded per query while building
+    @Value("${movies.search.index.build-page-size:1000}")
+    private int buildPageSize;
+
+    @Value("${movies.search.index.max-results:100}")
+    private int maxResults;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment segment = new Segment();
+    // Adds and removes made while a rebuild is loading; replayed onto the new segment
+    private List<Consumer<Segment>> changesDuringBuild;
+    private volatile boolean ready;
+    private volatile long lastBuildMillis;
+    private final AtomicLong queries = new AtomicLong();
+
+    @Autowired
+    public MovieSearchIndex(MovieRepository movieRepository) {
+        this.movieRepository = movieRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    // Loads the whole catalog into a new segment and swaps it in; queries keep using
+    // the old one meanwhile. One rebuild at a time.
+    public synchronized Map<String, Object> rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changesDuringBuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Segment fresh = new Segment();
+        try {
+            long lastId = 0;
+            List<Movie> page;
+            do {
+                // Keyset pagination so late pages cost the same as early ones
+                page = movieRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, buildPageSize));
+                for (Movie movie : page) {
+                    fresh.add(Entry.of(movie));
+                    lastId = movie.getId();
+                }
+            } while (page.size() == buildPageSize);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringBuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.error("Building the search index failed: {}", e.getMessage(), e);
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changesDuringBuild.forEach(change -> change.accept(fresh));
+            changesDuringBuild = null;
+            segment = fresh;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        lastBuildMillis = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Search index built: {} movies, {} terms in {} ms", fresh.docs.size(), fresh.postings.size(), lastBuildMillis);
+        return getStats();
+    }
+
+    public void add(Movie movie) {
+        addAll(List.of(movie));
+    }
+
+    public void addAll(Collection<Movie> movies) {
+        if (!enabled) {
+            return;
+        }
+        List<Entry> entries = new ArrayList<>(movies.size());
+        for (Movie movie : movies) {
+            if (movie.getId() != null) {
+                entries.add(Entry.of(movie));
+            }
+        }
+        apply(target -> entries.forEach(target::add));
+    }
+
+    public void remove(Long movieId) {
+        removeAll(List.of(movieId));
+    }
+
+    public void removeAll(Collection<Long> movieIds) {
+        if (!enabled) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(movieIds);
+        apply(target -> ids.forEach(id -> target.remove(id.intValue())));
+    }
+
+    private void apply(Consumer<Segment> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(segment);
+            if (changesDuringBuild != null) {
+                changesDuringBuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Movies matching all (matchAll) or any of the query terms, best BM25 score first
+    public Map<String, Object> search(String query, boolean matchAll, int limit) {
+        long start = System.nanoTime();
+        queries.incrementAndGet();
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokens(query)));
+        int k = Math.max(1, Math.min(limit, maxResults));
+
+        List<MovieSearchHit> hits = new ArrayList<>();
+        int total = 0;
+        lock.readLock().lock();
+        try {
+            Segment current = segment;
+            List<Postings> lists = new ArrayList<>();
+            boolean missingTerm = false;
+            for (String term : terms) {
+                Postings postings = current.postings.get(term);
+                if (postings == null) {
+                    missingTerm = true;
+                } else {
+                    lists.add(postings);
+                }
+            }
+            if (!lists.isEmpty() && !(matchAll && missingTerm)) {
+                TopK top = new TopK(k);
+                total = matchAll ? current.scoreAll(lists, top) : current.scoreAny(lists, top);
+                for (Scored scored : top.sorted()) {
+                    Doc doc = current.docs.get(scored.id);
+                    hits.add(MovieSearchHit.of((long) doc.id, doc.imdbId, doc.title, doc.year,
+                            Math.round(scored.score * 1000) / 1000.0));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("query", query);
+        result.put("operator", matchAll ? "and" : "or");
+        result.put("ready", ready);
+        result.put("total", total);
+        result.put("tookMicros", (System.nanoTime() - start) / 1_000);
+        result.put("hits", hits);
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            long postingCount = 0;
+            for (Postings postings : segment.postings.values()) {
+                postingCount += postings.size;
+            }
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("enabled", enabled);
+            stats.put("ready", ready);
+            stats.put("movies", segment.docs.size());
+            stats.put("terms", segment.postings.size());
+            stats.put("postings", postingCount);
+            stats.put("lastBuildMs", lastBuildMillis);
+            stats.put("queries", queries.get());
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // What the index keeps of a movie: display fields and weighted term frequencies
+    private static final class Entry {
+        final int id;
+        final String imdbId;
+        final String title;
+        final String year;
+        final Map<String, Integer> terms = new HashMap<>();
+        int length;
+
+        private Entry(Movie movie) {
+            this.id = Math.toIntExact(movie.getId());
+            this.imdbId = movie.getImdbId();
+            this.title = movie.getTitle();
+            this.year = movie.getYear();
+        }
+
+        static Entry of(Movie movie) {
+            Entry entry = new Entry(movie);
+            entry.addField(movie.getTitle(), TITLE_WEIGHT);
+            entry.addField(movie.getDirector(), PEOPLE_WEIGHT);
+            entry.addField(movie.getActors(), PEOPLE_WEIGHT);
+            entry.addField(movie.getGenre(), 1);
+            entry.addField(movie.getLanguage(), 1);
+            entry.addField(movie.getCountry(), 1);
+            return entry;
+        }
+
+        private void addField(String text, int weight) {
+            for (String token : tokens(text)) {
+                terms.merge(token, weight, Integer::sum);
+                length += weight;
+            }
+        }
+    }
+
+    private static final class Doc {
+        final int id;
+        final String imdbId;
+        final String title;
+        final String year;
+        final int length;
+        // Canonical term strings (shared with the posting map keys), for removal
+        final String[] terms;
+
+        Doc(Entry entry, String[] terms) {
+            this.id = entry.id;
+            this.imdbId = entry.imdbId;
+            this.title = entry.title;
+            this.year = entry.year;
+            this.length = entry.length;
+            this.terms = terms;
+        }
+    }
+
+    // Sorted movie ids containing a term, with the (weighted) frequency in each and the
+    // movie's length, so scoring never has to look the movie up
+    private static final class Postings {
+        final String term;
+        int[] ids = new int[4];
+        int[] freqs = new int[4];
+        int[] lengths = new int[4];
+        int size;
+
+        Postings(String term) {
+            this.term = term;
+        }
+
+        void put(int id, int freq, int length) {
+            int pos;
+            if (size == 0 || ids[size - 1] < id) {
+                pos = size;
+            } else {
+                pos = Arrays.binarySearch(ids, 0, size, id);
+                if (pos >= 0) {
+                    freqs[pos] = freq;
+                    lengths[pos] = length;
+                    return;
+                }
+                pos = -pos - 1;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+                lengths = Arrays.copyOf(lengths, size * 2);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            System.arraycopy(freqs, pos, freqs, pos + 1, size - pos);
+            System.arraycopy(lengths, pos, lengths, pos + 1, size - pos);
+            ids[pos] = id;
+            freqs[pos] = freq;
+            lengths[pos] = length;
+            size++;
+        }
+
+        void remove(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            System.arraycopy(freqs, pos + 1, freqs, pos, size - pos - 1);
+            System.arraycopy(lengths, pos + 1, lengths, pos, size - pos - 1);
+            size--;
+        }
+    }
+
+    private static final class Segment {
+        final Map<String, Postings> postings = new HashMap<>();
+        final Map<Integer, Doc> docs = new HashMap<>();
+        long totalLength;
+
+        void add(Entry entry) {
+            remove(entry.id);
+            String[] terms = new String[entry.terms.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> term : entry.terms.entrySet()) {
+                Postings list = postings.computeIfAbsent(term.getKey(), Postings::new);
+                list.put(entry.id, term.getValue(), entry.length);
+                terms[i++] = list.term;
+            }
+            docs.put(entry.id, new Doc(entry, terms));
+            totalLength += entry.length;
+        }
+
+        void remove(int id) {
+            Doc doc = docs.remove(id);
+            if (doc == null) {
+                return;
+            }
+            totalLength -= doc.length;
+            for (String term : doc.terms) {
+                Postings list = postings.get(term);
+                if (list != null) {
+                    list.remove(id);
+                    if (list.size == 0) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+
+        // BM25 idf of each list, computed once per query instead of per posting. Kept in
+        // the query rather than on the shared lists, since queries run under the read lock.
+        private double[] idfs(List<Postings> lists) {
+            int docCount = docs.size();
+            double[] idfs = new double[lists.size()];
+            for (int l = 0; l < lists.size(); l++) {
+                int size = lists.get(l).size;
+                idfs[l] = Math.log(1 + (docCount - size + 0.5) / (size + 0.5));
+            }
+            return idfs;
+        }
+
+        private static double score(Postings list, int index, double idf, double averageLength) {
+            int freq = list.freqs[index];
+            return idf * freq * (K1 + 1) / (freq + K1 * (1 - B + B * list.lengths[index] / averageLength));
+        }
+
+        // AND: walk the shortest list and look the id up in the others with forward-only cursors
+        int scoreAll(List<Postings> lists, TopK top) {
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            double[] idfs = idfs(lists);
+            double averageLength = (double) totalLength / docs.size();
+            Postings shortest = lists.get(0);
+            int[] cursors = new int[lists.size()];
+            int matches = 0;
+            candidates:
+            for (int i = 0; i < shortest.size; i++) {
+                int id = shortest.ids[i];
+                for (int l = 1; l < lists.size(); l++) {
+                    Postings other = lists.get(l);
+                    int c = cursors[l];
+                    while (c < other.size && other.ids[c] < id) {
+                        c++;
+                    }
+                    cursors[l] = c;
+                    if (c == other.size) {
+                        break candidates;
+                    }
+                    if (other.ids[c] != id) {
+                        continue candidates;
+                    }
+                }
+                // Only scored once it is known to match every term
+                double score = score(shortest, i, idfs[0], averageLength);
+                for (int l = 1; l < lists.size(); l++) {
+                    score += score(lists.get(l), cursors[l], idfs[l], averageLength);
+                }
+                matches++;
+                top.offer(id, score);
+            }
+            return matches;
+        }
+
+        // OR: k-way merge of the sorted lists, summing scores per id
+        int scoreAny(List<Postings> lists, TopK top) {
+            double[] idfs = idfs(lists);
+            double averageLength = (double) totalLength / docs.size();
+            int[] cursors = new int[lists.size()];
+            int matches = 0;
+            while (true) {
+                int id = Integer.MAX_VALUE;
+                for (int l = 0; l < lists.size(); l++) {
+                    if (cursors[l] < lists.get(l).size) {
+                        id = Math.min(id, lists.get(l).ids[cursors[l]]);
+                    }
+                }
+                if (id == Integer.MAX_VALUE) {
+                    return matches;
+                }
+                double score = 0;
+                for (int l = 0; l < lists.size(); l++) {
+                    Postings list = lists.get(l);
+                    if (cursors[l] < list.size && list.ids[cursors[l]] == id) {
+                        score += score(list, cursors[l], idfs[l], averageLength);
+                        cursors[l]++;
+                    }
+                }
+                matches++;
+                top.offer(id, score);
+            }
+        }
+    }
+
+    private static final class Scored {
+        final int id;
+        final double score;
+
+        Scored(int id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+
+    // Keeps the k best scores; ties go to the lower movie id
+    private static final class TopK {
+        private static final Comparator<Scored> WORST_FIRST = Comparator.<Scored>comparingDouble(s -> s.score)
+                .thenComparing(s -> s.id, Comparator.reverseOrder());
+
+        private final int k;
+        private final PriorityQueue<Scored> heap;
+
+        TopK(int k) {
+            this.k = k;
+            this.heap = new PriorityQueue<>(k, WORST_FIRST);
+        }
+
+        void offer(int id, double score) {
+            if (heap.size() < k) {
+                heap.add(new Scored(id, score));
+            } else if (score > heap.peek().score || (score == heap.peek().score && id < heap.peek().id)) {
+                heap.poll();
+                heap.add(new Scored(id, score));
+            }
+        }
+
+        List<Scored> sorted() {
+            List<Scored> sorted = new ArrayList<>(heap);
+            sorted.sort(WORST_FIRST.reversed());
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.moviecatalog.service;
+
+// How /movies/search matches the search term
+public enum MovieSearchMode {
+    // Case-insensitive substring of the title (LIKE on the trigram index)
+    TITLE,
+    // Ranked full-text match over title, director, actors, genre and plot (tsvector + GIN)
+    FULLTEXT,
+    // Title words as partial substrings in order, or typo-tolerant trigram similarity
+    FUZZY
+}
@@ -1,29 +1,82 @@
 package com.example.moviecatalog.service;
 
 import com.example.moviecatalog.model.Movie;
+import com.example.moviecatalog.model.MovieBatchItem;
+import com.example.moviecatalog.model.MovieImportResult;
 import com.example.moviecatalog.model.OmdbResponse;
 import com.example.moviecatalog.model.User;
 import com.example.moviecatalog.repository.MovieRepository;
+import com.example.moviecatalog.repository.RatingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 public class MovieService {
+    private static final Logger logger = LoggerFactory.getLogger(MovieService.class);
 
     private final MovieRepository movieRepository;
+    private final RatingRepository ratingRepository;
     private final OmdbApiService omdbApiService;
+    private final TransactionTemplate transactionTemplate;
+    private final MovieSearchIndex searchIndex;
+    private final MovieAutocompleteIndex autocompleteIndex;
+    private final MovieFacetIndex facetIndex;
+    
+    @Value("${movies.import.omdb-concurrency:8}")
+    private int importOmdbConcurrency;
+    
+    @Value("${movies.import.chunk-size:50}")
+    private int importChunkSize;
+    
+    @Value("${movies.delete.chunk-size:1000}")
+    private int deleteChunkSize;
+    
+    @Value("${movies.search.default-mode:title}")
+    private String defaultSearchMode;
+    
+    // pg_trgm word similarity (0..1) a title needs to match a FUZZY search with typos
+    @Value("${movies.search.fuzzy-threshold:0.5}")
+    private double fuzzyThreshold;
+    
+    // Movies loaded per /api/movies/browse page at most
+    @Value("${movies.facets.max-page-size:100}")
+    private int browseMaxPageSize;
     
     @Autowired
-    public MovieService(MovieRepository movieRepository, OmdbApiService omdbApiService) {
+    public MovieService(MovieRepository movieRepository, RatingRepository ratingRepository,
+                        OmdbApiService omdbApiService, TransactionTemplate transactionTemplate,
+                        MovieSearchIndex searchIndex, MovieAutocompleteIndex autocompleteIndex,
+                        MovieFacetIndex facetIndex) {
         this.movieRepository = movieRepository;
+        this.ratingRepository = ratingRepository;
         this.omdbApiService = omdbApiService;
+        this.transactionTemplate = transactionTemplate;
+        this.searchIndex = searchIndex;
+        this.autocompleteIndex = autocompleteIndex;
+        this.facetIndex = facetIndex;
     }
     
     // Get all movies with pagination
@@ -33,7 +86,69 @@ public class MovieService {
     
     // Search movies in database
     public Page<Movie> searchMovies(String searchTerm, Pageable pageable) {
-        return movieRepository.findByTitleContainingIgnoreCase(searchTerm, pageable);
+        return searchMovies(searchTerm, null, pageable);
+    }
+    
+    // Search movies with the given mode, or movies.search.default-mode when null
+    public Page<Movie> searchMovies(String searchTerm, MovieSearchMode mode, Pageable pageable) {
+        MovieSearchMode searchMode = mode != null ? mode : MovieSearchMode.valueOf(defaultSearchMode.trim().toUpperCase(Locale.ROOT));
+        switch (searchMode) {
+            case FULLTEXT:
+                // Ordered by rank in the query, so any requested sort is dropped
+                return movieRepository.searchFullText(searchTerm.trim(),
+                        PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+            case FUZZY:
+                return searchFuzzyTitle(searchTerm, pageable);
+            default:
+                return movieRepository.findByTitleLike(likePattern(searchTerm.trim().toLowerCase(Locale.ROOT)), pageable);
+        }
+    }
+    
+    // "guardi gal" finds "Guardians of the Galaxy" by substring, "guardains" by similarity
+    private Page<Movie> searchFuzzyTitle(String searchTerm, Pageable pageable) {
+        String query = searchTerm.trim().toLowerCase(Locale.ROOT);
+        String pattern = likePattern(query.split("\\s+"));
+        return transactionTemplate.execute(status -> {
+            movieRepository.setWordSimilarityThreshold(String.valueOf(fuzzyThreshold));
+            return movieRepository.searchFuzzyTitle(query, pattern,
+                    PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        });
+    }
+    
+    // %word1%word2% with LIKE wildcards inside the words escaped
+    private static String likePattern(String... words) {
+        return Arrays.stream(words)
+                .map(word -> word.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_"))
+                .collect(Collectors.joining("%", "%", "%"));
+    }
+    
+    // Movies matching every facet filter (any of the listed values within a facet), in
+    // id order, with the value counts of each facet under the other facets' filters
+    public Map<String, Object> browseMovies(Map<String, List<String>> filters, int page, int size) {
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("page must be >= 0 and size >= 1");
+        }
+        size = Math.min(size, browseMaxPageSize);
+        long offset = (long) page * size;
+        if (offset > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("page is too large");
+        }
+        Map<String, Object> result = facetIndex.query(filters, (int) offset, size);
+        @SuppressWarnings("unchecked")
+        List<Long> movieIds = (List<Long>) result.remove("movieIds");
+        Map<Long, Movie> movies = movieRepository.findAllById(movieIds).stream()
+                .collect(Collectors.toMap(Movie::getId, movie -> movie));
+        
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("filters", filters);
+        response.put("page", page);
+        response.put("size", size);
+        response.put("total", result.get("total"));
+        // A movie removed since the index answered is simply left out
+        response.put("movies", movieIds.stream().map(movies::get).filter(Objects::nonNull).collect(Collectors.toList()));
+        response.put("facets", result.get("facets"));
+        response.put("tookMicros", result.get("tookMicros"));
+        return response;
     }
     
     // Get movie by ID
@@ -55,8 +170,8 @@ public class MovieService {
             return existingMovie.get();
         }
         
-        // Fetch movie details from OMDB API
-        OmdbResponse omdbResponse = omdbApiService.getMovieDetails(imdbId);
+        // Fetch movie details from OMDB API; imports get the highest quota priority
+        OmdbResponse omdbResponse = omdbApiService.getMovieDetails(imdbId, OmdbRateLimiter.Priority.IMPORT);
         if (omdbResponse == null || !"True".equalsIgnoreCase(omdbResponse.getResponse())) {
             throw new RuntimeException("Movie not found in OMDB API");
         }
@@ -64,26 +179,209 @@ public class MovieService {
         // Convert to Movie entity and save
         Movie movie = omdbResponse.toMovie();
         movie.setAddedBy(admin);
-        return movieRepository.save(movie);
+        Movie saved = movieRepository.save(movie);
+        AfterCommit.run(() -> indexAdded(List.of(saved)));
+        return saved;
     }
     
-    // Add multiple movies to database
-    @Transactional
-    public List<Movie> addMovies(List<String> imdbIds, User admin) {
-        return imdbIds.stream()
-                .map(imdbId -> addMovie(imdbId, admin))
+    // Add multiple movies to database.
+    // Existing movies are found with one query, missing ones are fetched from OMDB
+    // concurrently outside any transaction, then saved in chunks, each in its own
+    // short transaction. Results are per ID, so one bad ID does not fail the rest.
+    public List<MovieImportResult> addMovies(List<String> imdbIds, User admin) {
+        List<String> ids = imdbIds.stream()
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .distinct()
                 .collect(Collectors.toList());
+        Map<String, MovieImportResult> results = new LinkedHashMap<>();
+        
+        for (Movie movie : movieRepository.findByImdbIdIn(ids)) {
+            results.put(movie.getImdbId(), MovieImportResult.existing(movie));
+        }
+        List<String> missing = ids.stream()
+                .filter(id -> !results.containsKey(id))
+                .collect(Collectors.toList());
+        
+        List<Movie> toSave = new ArrayList<>();
+        if (!missing.isEmpty()) {
+            Map<String, Object> fetched = omdbApiService.getMovieDetailsForImport(missing, importOmdbConcurrency);
+            for (String imdbId : missing) {
+                Object details = fetched.get(imdbId);
+                if (details instanceof OmdbResponse && "True".equalsIgnoreCase(((OmdbResponse) details).getResponse())) {
+                    Movie movie = ((OmdbResponse) details).toMovie();
+                    movie.setAddedBy(admin);
+                    toSave.add(movie);
+                } else {
+                    String error = details instanceof Map ? String.valueOf(((Map<?, ?>) details).get("error")) : "Movie not found in OMDB API";
+                    results.put(imdbId, MovieImportResult.failed(imdbId, error));
+                }
+            }
+        }
+        
+        return saveAndCollect(ids, toSave, results);
+    }
+    
+    // Add movies from OMDB details records that were fetched earlier (e.g. an NDJSON dump).
+    // Same as addMovies, but no OMDB request is made.
+    public List<MovieImportResult> addMovieRecords(List<OmdbResponse> records, User admin) {
+        Map<String, OmdbResponse> byId = new LinkedHashMap<>();
+        for (OmdbResponse record : records) {
+            byId.putIfAbsent(record.getImdbId().trim(), record);
+        }
+        List<String> ids = new ArrayList<>(byId.keySet());
+        Map<String, MovieImportResult> results = new LinkedHashMap<>();
+        
+        for (Movie movie : movieRepository.findByImdbIdIn(ids)) {
+            results.put(movie.getImdbId(), MovieImportResult.existing(movie));
+        }
+        List<Movie> toSave = new ArrayList<>();
+        for (Map.Entry<String, OmdbResponse> entry : byId.entrySet()) {
+            if (!results.containsKey(entry.getKey())) {
+                Movie movie = entry.getValue().toMovie();
+                movie.setImdbId(entry.getKey());
+                movie.setAddedBy(admin);
+                toSave.add(movie);
+            }
+        }
+        
+        return saveAndCollect(ids, toSave, results);
+    }
+    
+    // Same as addMovies, but results are emitted one chunk at a time while the batch
+    // runs, and a chunk that fails unexpectedly only fails its own IDs
+    public Flux<MovieBatchItem> addMoviesStreaming(List<String> imdbIds, User admin) {
+        return Flux.fromIterable(imdbIds)
+                .buffer(importChunkSize)
+                .concatMap(chunk -> Mono.fromCallable(() -> addMovies(chunk, admin))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMapIterable(results -> results)
+                        .map(MovieBatchItem::of)
+                        .onErrorResume(e -> {
+                            logger.error("Batch import chunk failed: {}", e.getMessage(), e);
+                            return Flux.fromIterable(chunk)
+                                    .map(imdbId -> MovieBatchItem.failed(imdbId, null, e.getMessage()));
+                        }));
+    }
+    
+    private List<MovieImportResult> saveAndCollect(List<String> ids, List<Movie> toSave,
+                                                   Map<String, MovieImportResult> results) {
+        for (int from = 0; from < toSave.size(); from += importChunkSize) {
+            saveChunk(toSave.subList(from, Math.min(from + importChunkSize, toSave.size())), results);
+        }
+        
+        List<MovieImportResult> ordered = ids.stream().map(results::get).collect(Collectors.toList());
+        Map<MovieImportResult.Status, Long> counts = ordered.stream()
+                .collect(Collectors.groupingBy(MovieImportResult::getStatus, Collectors.counting()));
+        logger.info("Batch import of {} movies: {}", ids.size(), counts);
+        return ordered;
+    }
+    
+    private void saveChunk(List<Movie> chunk, Map<String, MovieImportResult> results) {
+        try {
+            List<Movie> saved = transactionTemplate.execute(status -> movieRepository.saveAllAndFlush(chunk));
+            indexAdded(saved);
+            saved.forEach(movie -> results.put(movie.getImdbId(), MovieImportResult.added(movie)));
+        } catch (DataAccessException e) {
+            // One bad row rolls back the whole chunk; retry row by row so only that row is lost
+            logger.warn("Saving a chunk of {} movies failed, retrying one by one: {}", chunk.size(), e.getMessage());
+            for (Movie movie : chunk) {
+                movie.setId(null);
+                try {
+                    Movie saved = transactionTemplate.execute(status -> movieRepository.saveAndFlush(movie));
+                    indexAdded(List.of(saved));
+                    results.put(saved.getImdbId(), MovieImportResult.added(saved));
+                } catch (DataAccessException ex) {
+                    // Most likely added concurrently by another import
+                    Optional<Movie> existing = movieRepository.findByImdbId(movie.getImdbId());
+                    results.put(movie.getImdbId(), existing.isPresent()
+                            ? MovieImportResult.existing(existing.get())
+                            : MovieImportResult.failed(movie.getImdbId(), ex.getMostSpecificCause().getMessage()));
+                }
+            }
+        }
     }
     
     // Remove movie from database
     @Transactional
     public void removeMovie(Long id) {
+        List<String> imdbIds = movieRepository.findImdbIdsByIdIn(List.of(id));
         movieRepository.deleteById(id);
+        AfterCommit.run(() -> {
+            indexRemoved(List.of(id));
+            omdbApiService.evictMovieDetails(imdbIds);
+        });
     }
     
-    // Remove multiple movies from database
-    @Transactional
-    public void removeMovies(List<Long> ids) {
-        movieRepository.deleteAllById(ids);
+    // Remove multiple movies from database.
+    // Ratings and then movies are deleted with set-based DELETE ... IN statements,
+    // chunked to keep the IN lists bounded, all in one transaction as before.
+    // Unknown IDs are ignored. Returns the affected row counts.
+    public Map<String, Integer> removeMovies(List<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().collect(Collectors.toList());
+        List<String> imdbIds = new ArrayList<>();
+        int[] deleted = new int[2];
+        
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int from = 0; from < distinctIds.size(); from += deleteChunkSize) {
+                List<Long> chunk = distinctIds.subList(from, Math.min(from + deleteChunkSize, distinctIds.size()));
+                imdbIds.addAll(movieRepository.findImdbIdsByIdIn(chunk));
+                deleted[0] += ratingRepository.deleteByMovieIdIn(chunk);
+                deleted[1] += movieRepository.deleteByIdIn(chunk);
+            }
+        });
+        indexRemoved(distinctIds);
+        omdbApiService.evictMovieDetails(imdbIds);
+        
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("requested", distinctIds.size());
+        counts.put("moviesDeleted", deleted[1]);
+        counts.put("ratingsDeleted", deleted[0]);
+        logger.info("Bulk delete: {}", counts);
+        return counts;
+    }
+    
+    // Streaming variant of removeMovies: each chunk is deleted and committed in its own
+    // transaction and reported per ID, so a failing chunk does not undo earlier ones
+    public Flux<MovieBatchItem> removeMoviesStreaming(List<Long> ids) {
+        return Flux.fromIterable(ids)
+                .distinct()
+                .buffer(deleteChunkSize)
+                .concatMap(chunk -> Mono.fromCallable(() -> deleteChunk(chunk))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMapIterable(items -> items)
+                        .onErrorResume(e -> {
+                            logger.error("Batch delete chunk failed: {}", e.getMessage(), e);
+                            return Flux.fromIterable(chunk).map(id -> MovieBatchItem.failed(null, id, e.getMessage()));
+                        }));
+    }
+    
+    private List<MovieBatchItem> deleteChunk(List<Long> chunk) {
+        Map<Long, Movie> found = new LinkedHashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            movieRepository.findAllById(chunk).forEach(movie -> found.put(movie.getId(), movie));
+            if (!found.isEmpty()) {
+                ratingRepository.deleteByMovieIdIn(found.keySet());
+                movieRepository.deleteByIdIn(found.keySet());
+            }
+        });
+        indexRemoved(found.keySet());
+        omdbApiService.evictMovieDetails(found.values().stream().map(Movie::getImdbId).collect(Collectors.toList()));
+        return chunk.stream()
+                .map(id -> found.containsKey(id) ? MovieBatchItem.deleted(found.get(id)) : MovieBatchItem.notFound(id))
+                .collect(Collectors.toList());
+    }
+    
+    // Keeps the in-memory search, autocomplete and facet indexes in step with committed rows
+    private void indexAdded(Collection<Movie> movies) {
+        searchIndex.addAll(movies);
+        autocompleteIndex.addAll(movies);
+        facetIndex.addAll(movies);
+    }
+    
+    private void indexRemoved(Collection<Long> movieIds) {
+        searchIndex.removeAll(movieIds);
+        autocompleteIndex.removeAll(movieIds);
+        facetIndex.removeAll(movieIds);
     }
 }
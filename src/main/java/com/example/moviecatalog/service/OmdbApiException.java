@@ -0,0 +1,13 @@
+package com.example.moviecatalog.service;
+
+// Raised when OMDB cannot be reached or returns an unreadable response
+public class OmdbApiException extends RuntimeException {
+
+    public OmdbApiException(String message) {
+        super(message);
+    }
+
+    public OmdbApiException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
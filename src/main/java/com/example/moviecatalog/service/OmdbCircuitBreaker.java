@@ -0,0 +1,177 @@
+package com.example.moviecatalog.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Circuit breaker around the OMDB transport. Trips when the failure rate or
+// the slow-call rate over the last omdb.breaker.window-size calls crosses its
+// threshold, rejects calls while open, then lets a few trial calls through.
+@Component
+public class OmdbCircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(OmdbCircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    @Value("${omdb.breaker.window-size:20}")
+    private int windowSize;
+
+    @Value("${omdb.breaker.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${omdb.breaker.failure-rate-threshold:0.5}")
+    private double failureRateThreshold;
+
+    @Value("${omdb.breaker.slow-call-ms:5000}")
+    private long slowCallMs;
+
+    @Value("${omdb.breaker.slow-call-rate-threshold:0.8}")
+    private double slowCallRateThreshold;
+
+    @Value("${omdb.breaker.open-duration-ms:30000}")
+    private long openDurationMs;
+
+    @Value("${omdb.breaker.half-open-calls:2}")
+    private int halfOpenCalls;
+
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private Instant lastTransitionAt = Instant.now();
+    private int halfOpenInFlight;
+    private int halfOpenSuccesses;
+
+    // Ring buffer of recent outcomes: 0 = ok, 1 = slow, 2 = failed
+    private byte[] outcomes;
+    private int outcomeCount;
+    private int nextOutcome;
+
+    private long rejectedCalls;
+    private long tripCount;
+
+    // Returns false when the call must not go upstream
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAtNanos < TimeUnit.MILLISECONDS.toNanos(openDurationMs)) {
+                rejectedCalls++;
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight >= halfOpenCalls) {
+                rejectedCalls++;
+                return false;
+            }
+            halfOpenInFlight++;
+        }
+        return true;
+    }
+
+    // Gives back a permission for a call that never reached OMDB (quota rejection, cancellation)
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && halfOpenInFlight > 0) {
+            halfOpenInFlight--;
+        }
+    }
+
+    public synchronized void onSuccess(long latencyNanos) {
+        boolean slow = TimeUnit.NANOSECONDS.toMillis(latencyNanos) >= slowCallMs;
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight = Math.max(0, halfOpenInFlight - 1);
+            if (slow) {
+                trip("slow trial call");
+                return;
+            }
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        record(slow ? (byte) 1 : (byte) 0);
+    }
+
+    public synchronized void onError() {
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight = Math.max(0, halfOpenInFlight - 1);
+            trip("failed trial call");
+            return;
+        }
+        record((byte) 2);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("state", state);
+        stats.put("lastTransitionAt", lastTransitionAt);
+        stats.put("failureRate", rate(2));
+        stats.put("slowCallRate", rate(1));
+        stats.put("bufferedCalls", outcomeCount);
+        stats.put("rejectedCalls", rejectedCalls);
+        stats.put("tripCount", tripCount);
+        return stats;
+    }
+
+    private void record(byte outcome) {
+        if (outcomes == null || outcomes.length != windowSize) {
+            outcomes = new byte[windowSize];
+            outcomeCount = 0;
+            nextOutcome = 0;
+        }
+        outcomes[nextOutcome] = outcome;
+        nextOutcome = (nextOutcome + 1) % windowSize;
+        outcomeCount = Math.min(outcomeCount + 1, windowSize);
+
+        if (state == State.CLOSED && outcomeCount >= minimumCalls) {
+            if (rate(2) >= failureRateThreshold) {
+                trip("failure rate " + rate(2));
+            } else if (rate(1) >= slowCallRateThreshold) {
+                trip("slow call rate " + rate(1));
+            }
+        }
+    }
+
+    // Share of buffered calls with the given outcome
+    private double rate(int outcome) {
+        if (outcomeCount == 0) {
+            return 0.0;
+        }
+        int matches = 0;
+        for (int i = 0; i < outcomeCount; i++) {
+            if (outcomes[i] == outcome) {
+                matches++;
+            }
+        }
+        return (double) matches / outcomeCount;
+    }
+
+    private void trip(String reason) {
+        logger.warn("OMDB circuit breaker opened: {}", reason);
+        tripCount++;
+        transitionTo(State.OPEN);
+    }
+
+    private void transitionTo(State newState) {
+        logger.info("OMDB circuit breaker {} -> {}", state, newState);
+        state = newState;
+        lastTransitionAt = Instant.now();
+        halfOpenInFlight = 0;
+        halfOpenSuccesses = 0;
+        if (newState == State.OPEN) {
+            openedAtNanos = System.nanoTime();
+        }
+        if (newState != State.HALF_OPEN) {
+            outcomeCount = 0;
+            nextOutcome = 0;
+        }
+    }
+}
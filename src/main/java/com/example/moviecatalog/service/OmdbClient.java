@@ -0,0 +1,200 @@
+package com.example.moviecatalog.service;
+
+import com.example.moviecatalog.model.OmdbResponse;
+import com.example.moviecatalog.model.OmdbSearchResults;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriBuilder;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Single transport for all OMDB traffic: one pooled keep-alive WebClient and
+// pre-built Jackson readers shared by every request. Bodies are parsed straight
+// from the network buffers, never decoded into an intermediate String.
+@Component
+public class OmdbClient {
+    private static final Logger logger = LoggerFactory.getLogger(OmdbClient.class);
+
+    @Value("${omdb.api.key}")
+    private String apiKey;
+
+    @Value("${omdb.http.request-timeout-ms:15000}")
+    private long requestTimeoutMs;
+
+    @Value("${omdb.http.max-response-bytes:262144}")
+    private int maxResponseBytes;
+
+    // Share of responses whose raw payload is logged, 0 disables payload logging
+    @Value("${omdb.http.log-sample-rate:0.0}")
+    private double logSampleRate;
+
+    private final WebClient webClient;
+    private final OmdbRateLimiter rateLimiter;
+    private final OmdbCircuitBreaker circuitBreaker;
+    private final OmdbHedgingPolicy hedgingPolicy;
+    private final ObjectReader searchReader;
+    private final ObjectReader detailsReader;
+    private final ObjectReader treeReader;
+
+    @Autowired
+    public OmdbClient(WebClient omdbWebClient, OmdbRateLimiter rateLimiter, OmdbCircuitBreaker circuitBreaker,
+                      OmdbHedgingPolicy hedgingPolicy, ObjectMapper objectMapper) {
+        this.webClient = omdbWebClient;
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.hedgingPolicy = hedgingPolicy;
+        this.searchReader = objectMapper.readerFor(OmdbSearchResults.class);
+        this.detailsReader = objectMapper.readerFor(OmdbResponse.class);
+        this.treeReader = objectMapper.readerFor(JsonNode.class);
+    }
+
+    // ?s= search, one page of up to ten results
+    public Mono<OmdbSearchResults> search(String searchTerm, int page, OmdbRateLimiter.Priority priority) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("s", searchTerm);
+        params.put("type", "movie");
+        params.put("page", page);
+        return get(params, searchReader, priority);
+    }
+
+    // ?i= lookup with the full plot
+    public Mono<OmdbResponse> details(String imdbId, OmdbRateLimiter.Priority priority) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("i", imdbId);
+        params.put("plot", "full");
+        return hedged(params, detailsReader, priority);
+    }
+
+    // ?t= exact title lookup
+    public Mono<OmdbResponse> detailsByTitle(String title, OmdbRateLimiter.Priority priority) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("t", title);
+        return hedged(params, detailsReader, priority);
+    }
+
+    // ?i= lookup for the health monitor: never hedged and kept out of the hedge-delay
+    // latency window, so probes neither duplicate upstream traffic nor skew the percentile
+    public Mono<OmdbResponse> probe(String imdbId, OmdbRateLimiter.Priority priority) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("i", imdbId);
+        return get(params, detailsReader, priority);
+    }
+
+    // Untyped response, used by the diagnostic endpoints
+    public Mono<JsonNode> raw(Map<String, Object> params, OmdbRateLimiter.Priority priority) {
+        return get(params, treeReader, priority);
+    }
+
+    // Blocking bridge for the servlet-side callers
+    public <T> T block(Mono<T> request) {
+        return request.block();
+    }
+
+    // Sends an identical second request when the first has not answered within the
+    // hedge delay and the hedge budget allows it; whichever answers first wins.
+    // The hedge only uses spare quota (BACKGROUND lane) and the first request keeps
+    // running when it loses, so its outcome still reaches the circuit breaker.
+    private <T> Mono<T> hedged(Map<String, Object> params, ObjectReader reader, OmdbRateLimiter.Priority priority) {
+        if (!hedgingPolicy.isEnabled()) {
+            return get(params, reader, priority, true);
+        }
+        return Mono.defer(() -> {
+            Duration hedgeDelay = hedgingPolicy.onRequest();
+            Mono<T> primary = this.<T>get(params, reader, priority, true).cache();
+            return primary.timeout(Mono.delay(hedgeDelay), Mono.defer(() -> {
+                if (!hedgingPolicy.tryHedge()) {
+                    return primary;
+                }
+                logger.debug("Hedging OMDB request after {} ms: {}", hedgeDelay.toMillis(), params);
+                Mono<T> hedge = this.<T>get(params, reader, OmdbRateLimiter.Priority.BACKGROUND, false)
+                        .doOnNext(value -> hedgingPolicy.onHedgeWin());
+                return Mono.firstWithValue(primary, hedge)
+                        // Both failed: report the original request's error
+                        .onErrorMap(NoSuchElementException.class, e -> e.getCause() != null
+                                ? Exceptions.unwrapMultiple(e.getCause()).get(0) : e);
+            }));
+        });
+    }
+
+    private <T> Mono<T> get(Map<String, Object> params, ObjectReader reader, OmdbRateLimiter.Priority priority) {
+        return get(params, reader, priority, false);
+    }
+
+    // Every request passes the circuit breaker and spends a quota token first;
+    // the timeout and the breaker's latency measurement only cover the HTTP exchange
+    private <T> Mono<T> get(Map<String, Object> params, ObjectReader reader, OmdbRateLimiter.Priority priority,
+                            boolean recordLatency) {
+        Mono<T> exchange = Mono.defer(() -> {
+            long start = System.nanoTime();
+            return webClient.get()
+                    .uri(uriBuilder -> buildUri(uriBuilder, params))
+                    .retrieve()
+                    .bodyToFlux(DataBuffer.class)
+                    .as(body -> DataBufferUtils.join(body, maxResponseBytes))
+                    .map(body -> this.<T>parse(body, reader))
+                    .timeout(Duration.ofMillis(requestTimeoutMs))
+                    .doOnSubscribe(subscription -> logger.debug("OMDB request: {}", params))
+                    .doOnSuccess(value -> {
+                        long latency = System.nanoTime() - start;
+                        circuitBreaker.onSuccess(latency);
+                        if (recordLatency) {
+                            hedgingPolicy.recordLatency(latency);
+                        }
+                    })
+                    .doOnError(e -> circuitBreaker.onError())
+                    .doOnCancel(circuitBreaker::releasePermission);
+        });
+        return Mono.defer(() -> {
+                    if (!circuitBreaker.tryAcquirePermission()) {
+                        return Mono.error(new OmdbApiException("OMDB circuit breaker is open"));
+                    }
+                    return rateLimiter.acquire(priority)
+                            .doOnError(e -> circuitBreaker.releasePermission())
+                            .then(exchange);
+                })
+                .onErrorMap(e -> !(e instanceof OmdbApiException),
+                        e -> new OmdbApiException("OMDB request failed: " + e.getMessage(), e));
+    }
+
+    private URI buildUri(UriBuilder uriBuilder, Map<String, Object> params) {
+        Map<String, Object> variables = new LinkedHashMap<>(params);
+        variables.put("apikey", apiKey);
+        // Values go in as URI variables so they are strictly encoded
+        for (String name : variables.keySet()) {
+            uriBuilder.queryParam(name, "{" + name + "}");
+        }
+        return uriBuilder.build(variables);
+    }
+
+    // Releases the buffer once Jackson has consumed it
+    private <T> T parse(DataBuffer body, ObjectReader reader) {
+        if (logSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+            logger.info("OMDB API raw response (sampled): {}",
+                    body.toString(body.readPosition(), body.readableByteCount(), StandardCharsets.UTF_8));
+        }
+        try (InputStream in = body.asInputStream(true)) {
+            return reader.readValue(in);
+        } catch (IOException e) {
+            throw new OmdbApiException("Unreadable OMDB response: " + e.getMessage(), e);
+        }
+    }
+}
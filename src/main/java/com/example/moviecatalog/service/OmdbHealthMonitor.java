@@ -0,0 +1,117 @@
+package com.example.moviecatalog.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Probes OMDB on its own cadence and keeps the last known status,
+// so request paths never pay for health checks
+@Component
+public class OmdbHealthMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(OmdbHealthMonitor.class);
+
+    public enum Status { UNKNOWN, UP, DOWN }
+
+    @Value("${omdb.health.enabled:true}")
+    private boolean enabled;
+
+    @Value("${omdb.health.probe-imdb-id:tt3896198}")
+    private String probeImdbId;
+
+    private final OmdbClient omdbClient;
+    private final OmdbCircuitBreaker circuitBreaker;
+    private final AtomicBoolean probing = new AtomicBoolean();
+
+    private Status status = Status.UNKNOWN;
+    private Instant lastCheckedAt;
+    private Instant lastSuccessAt;
+    private String lastError;
+    private long lastLatencyMs;
+    private double averageLatencyMs;
+    private int consecutiveFailures;
+    private long totalProbes;
+    private long failedProbes;
+
+    @Autowired
+    public OmdbHealthMonitor(OmdbClient omdbClient, OmdbCircuitBreaker circuitBreaker) {
+        this.omdbClient = omdbClient;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    // Subscribes rather than blocks, so a slow OMDB does not hold up the other scheduled jobs;
+    // a probe still in flight when the next one is due is not doubled up
+    @Scheduled(initialDelayString = "${omdb.health.initial-delay-ms:10000}",
+               fixedDelayString = "${omdb.health.interval-ms:600000}")
+    public void probe() {
+        if (!enabled || !probing.compareAndSet(false, true)) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        omdbClient.probe(probeImdbId, OmdbRateLimiter.Priority.BACKGROUND)
+                .switchIfEmpty(Mono.error(() -> new OmdbApiException("Empty response")))
+                .doFinally(signal -> probing.set(false))
+                .subscribe(
+                        response -> record("True".equals(response.getResponse()) ? null : response.getError(),
+                                elapsedMs(start)),
+                        e -> {
+                            if (e instanceof OmdbQuotaExceededException) {
+                                // Probes only use spare quota; skipping one says nothing about OMDB itself
+                                logger.debug("Skipping OMDB health probe: {}", e.getMessage());
+                                return;
+                            }
+                            record(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName(),
+                                    elapsedMs(start));
+                        });
+    }
+
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", status);
+        result.put("lastCheckedAt", lastCheckedAt);
+        result.put("lastSuccessAt", lastSuccessAt);
+        result.put("lastError", lastError);
+        result.put("lastLatencyMs", lastLatencyMs);
+        result.put("averageLatencyMs", Math.round(averageLatencyMs));
+        result.put("consecutiveFailures", consecutiveFailures);
+        result.put("totalProbes", totalProbes);
+        result.put("failedProbes", failedProbes);
+        result.put("circuitBreaker", circuitBreaker.getStats());
+        return result;
+    }
+
+    private static long elapsedMs(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private synchronized void record(String error, long latencyMs) {
+        Instant now = Instant.now();
+        totalProbes++;
+        lastCheckedAt = now;
+        lastLatencyMs = latencyMs;
+        // Exponentially weighted so one slow probe does not dominate
+        averageLatencyMs = totalProbes == 1 ? latencyMs : averageLatencyMs * 0.8 + latencyMs * 0.2;
+
+        if (error == null) {
+            status = Status.UP;
+            lastSuccessAt = now;
+            consecutiveFailures = 0;
+            logger.debug("OMDB health probe succeeded in {} ms", latencyMs);
+        } else {
+            status = Status.DOWN;
+            lastError = error;
+            consecutiveFailures++;
+            failedProbes++;
+            logger.warn("OMDB health probe failed in {} ms: {}", latencyMs, error);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.moviecatalog.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Decides when OmdbClient sends a second, identical details request.
+// The hedge delay tracks a percentile of recent OMDB latencies, and hedges are
+// paid from a budget that grows by omdb.hedge.budget-percent of each request,
+// so hedging never adds more than that share of upstream traffic.
+@Component
+public class OmdbHedgingPolicy {
+
+    private static final int LATENCY_SAMPLES = 256;
+    private static final int RECOMPUTE_EVERY = 16;
+    // Hedges that may be saved up during quiet periods
+    private static final double MAX_CREDITS = 10;
+
+    @Value("${omdb.hedge.enabled:false}")
+    private boolean enabled;
+
+    @Value("${omdb.hedge.percentile:0.95}")
+    private double percentile;
+
+    @Value("${omdb.hedge.min-samples:20}")
+    private int minSamples;
+
+    // Used until enough latencies have been observed
+    @Value("${omdb.hedge.default-delay-ms:1000}")
+    private long defaultDelayMs;
+
+    @Value("${omdb.hedge.min-delay-ms:50}")
+    private long minDelayMs;
+
+    @Value("${omdb.hedge.budget-percent:5}")
+    private double budgetPercent;
+
+    private final long[] latenciesMs = new long[LATENCY_SAMPLES];
+    private int latencyCount;
+    private int nextLatency;
+    private long delayMs = -1;
+
+    private double credits;
+    private long requests;
+    private long hedges;
+    private long hedgeWins;
+    private long budgetDenied;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Called once per hedgeable request; earns budget for a later hedge
+    public synchronized Duration onRequest() {
+        requests++;
+        credits = Math.min(MAX_CREDITS, credits + budgetPercent / 100.0);
+        return Duration.ofMillis(currentDelayMs());
+    }
+
+    // True when a hedge may be sent now, spending one unit of budget
+    public synchronized boolean tryHedge() {
+        if (credits < 1) {
+            budgetDenied++;
+            return false;
+        }
+        credits -= 1;
+        hedges++;
+        return true;
+    }
+
+    public synchronized void onHedgeWin() {
+        hedgeWins++;
+    }
+
+    public synchronized void recordLatency(long latencyNanos) {
+        latenciesMs[nextLatency] = latencyNanos / 1_000_000;
+        nextLatency = (nextLatency + 1) % LATENCY_SAMPLES;
+        latencyCount = Math.min(latencyCount + 1, LATENCY_SAMPLES);
+        if (latencyCount >= minSamples && (delayMs < 0 || nextLatency % RECOMPUTE_EVERY == 0)) {
+            long[] sorted = Arrays.copyOf(latenciesMs, latencyCount);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile * latencyCount) - 1;
+            delayMs = Math.max(minDelayMs, sorted[Math.max(0, Math.min(rank, latencyCount - 1))]);
+        }
+    }
+
+    private long currentDelayMs() {
+        return delayMs < 0 ? defaultDelayMs : delayMs;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("percentile", percentile);
+        stats.put("hedgeDelayMs", currentDelayMs());
+        stats.put("budgetPercent", budgetPercent);
+        stats.put("requests", requests);
+        stats.put("hedges", hedges);
+        stats.put("hedgeWins", hedgeWins);
+        stats.put("budgetDenied", budgetDenied);
+        return stats;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.moviecatalog.service;
+
+// Raised when a request cannot get an OMDB quota token within its lane's wait budget
+public class OmdbQuotaExceededException extends OmdbApiException {
+
+    public OmdbQuotaExceededException(String message) {
+        super(message);
+    }
+}
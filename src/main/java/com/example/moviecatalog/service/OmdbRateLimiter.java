@@ -0,0 +1,154 @@
+package com.example.moviecatalog.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Client-side token bucket sized to the OMDB key's daily quota.
+// Lower priority lanes may only spend tokens above a reserve kept for the
+// lanes above them, and fail fast instead of queueing.
+@Component
+public class OmdbRateLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(OmdbRateLimiter.class);
+
+    // Highest priority first
+    public enum Priority { IMPORT, DETAILS, SEARCH, BACKGROUND }
+
+    @Value("${omdb.quota.daily-limit:1000}")
+    private long dailyLimit;
+
+    @Value("${omdb.quota.burst:100}")
+    private long burst;
+
+    @Value("${omdb.quota.search-reserve:0.3}")
+    private double searchReserve;
+
+    @Value("${omdb.quota.background-reserve:0.5}")
+    private double backgroundReserve;
+
+    @Value("${omdb.quota.import-max-wait-ms:30000}")
+    private long importMaxWaitMs;
+
+    @Value("${omdb.quota.details-max-wait-ms:2000}")
+    private long detailsMaxWaitMs;
+
+    private double tokens = -1;
+    private long lastRefillNanos;
+
+    private final Map<Priority, AtomicLong> granted = new EnumMap<>(Priority.class);
+    private final Map<Priority, AtomicLong> delayed = new EnumMap<>(Priority.class);
+    private final Map<Priority, AtomicLong> rejected = new EnumMap<>(Priority.class);
+
+    public OmdbRateLimiter() {
+        for (Priority priority : Priority.values()) {
+            granted.put(priority, new AtomicLong());
+            delayed.put(priority, new AtomicLong());
+            rejected.put(priority, new AtomicLong());
+        }
+    }
+
+    // Completes once a token is taken for this lane, or errors when the lane
+    // cannot get one within its maximum wait
+    public Mono<Void> acquire(Priority priority) {
+        if (dailyLimit <= 0) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> attempt(priority, System.nanoTime() + maxWaitNanos(priority), false));
+    }
+
+    private Mono<Void> attempt(Priority priority, long deadline, boolean retry) {
+        long waitNanos = tryAcquire(priority);
+        if (waitNanos == 0) {
+            granted.get(priority).incrementAndGet();
+            return Mono.empty();
+        }
+        if (System.nanoTime() + waitNanos > deadline) {
+            rejected.get(priority).incrementAndGet();
+            logger.warn("OMDB quota exhausted, rejecting {} request", priority);
+            return Mono.error(new OmdbQuotaExceededException("OMDB request quota exhausted for " + priority + " requests"));
+        }
+        if (!retry) {
+            delayed.get(priority).incrementAndGet();
+        }
+        return Mono.delay(Duration.ofNanos(waitNanos))
+                .then(Mono.defer(() -> attempt(priority, deadline, true)));
+    }
+
+    // Takes a token and returns 0, or returns how long until one is available to this lane
+    private synchronized long tryAcquire(Priority priority) {
+        refill();
+        double floor = burst * reserveFor(priority);
+        if (tokens - 1 >= floor) {
+            tokens -= 1;
+            return 0;
+        }
+        double deficit = floor + 1 - tokens;
+        return Math.max(1, (long) (deficit / refillPerNano()));
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        if (tokens < 0) {
+            tokens = burst;
+        } else {
+            tokens = Math.min(burst, tokens + (now - lastRefillNanos) * refillPerNano());
+        }
+        lastRefillNanos = now;
+    }
+
+    private double refillPerNano() {
+        return dailyLimit / (double) Duration.ofDays(1).toNanos();
+    }
+
+    private double reserveFor(Priority priority) {
+        switch (priority) {
+            case SEARCH:
+                return searchReserve;
+            case BACKGROUND:
+                return backgroundReserve;
+            default:
+                return 0;
+        }
+    }
+
+    private long maxWaitNanos(Priority priority) {
+        switch (priority) {
+            case IMPORT:
+                return Duration.ofMillis(importMaxWaitMs).toNanos();
+            case DETAILS:
+                return Duration.ofMillis(detailsMaxWaitMs).toNanos();
+            default:
+                // Anonymous searches and background work fail fast
+                return 0;
+        }
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        if (dailyLimit > 0) {
+            refill();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("dailyLimit", dailyLimit);
+        stats.put("burst", burst);
+        stats.put("availableTokens", dailyLimit > 0 ? Math.floor(tokens) : null);
+        Map<String, Object> lanes = new LinkedHashMap<>();
+        for (Priority priority : Priority.values()) {
+            Map<String, Object> lane = new LinkedHashMap<>();
+            lane.put("reserve", reserveFor(priority));
+            lane.put("granted", granted.get(priority).get());
+            lane.put("delayed", delayed.get(priority).get());
+            lane.put("rejected", rejected.get(priority).get());
+            lanes.put(priority.name(), lane);
+        }
+        stats.put("lanes", lanes);
+        return stats;
+    }
+}
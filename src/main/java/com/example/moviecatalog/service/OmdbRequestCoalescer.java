@@ -0,0 +1,74 @@
+package com.example.moviecatalog.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Single-flight deduplication: concurrent lookups for the same normalized key
+// share one upstream OMDB call instead of each making their own
+@Component
+public class OmdbRequestCoalescer {
+    private static final Logger logger = LoggerFactory.getLogger(OmdbRequestCoalescer.class);
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong upstreamCalls = new AtomicLong();
+    private final AtomicLong collapsed = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> execute(String key, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            requests.incrementAndGet();
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+            if (existing != null) {
+                collapsed.incrementAndGet();
+                logger.debug("Joined in-flight OMDB request for {}", key);
+                return Mono.fromFuture(existing, true).map(value -> (T) value);
+            }
+
+            upstreamCalls.incrementAndGet();
+            // The upstream call is detached from any single caller, so one caller
+            // cancelling does not fail the others waiting on the same key
+            Mono<T> upstream;
+            try {
+                upstream = call.get();
+            } catch (RuntimeException e) {
+                inFlight.remove(key, future);
+                return Mono.error(e);
+            }
+            upstream.subscribe(
+                    value -> {
+                        inFlight.remove(key, future);
+                        future.complete(value);
+                    },
+                    error -> {
+                        inFlight.remove(key, future);
+                        future.completeExceptionally(error);
+                    },
+                    () -> {
+                        inFlight.remove(key, future);
+                        future.complete(null);
+                    });
+            return Mono.fromFuture(future, true).map(value -> (T) value);
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", requests.get());
+        stats.put("upstreamCalls", upstreamCalls.get());
+        stats.put("collapsed", collapsed.get());
+        stats.put("inFlight", inFlight.size());
+        return stats;
+    }
+}
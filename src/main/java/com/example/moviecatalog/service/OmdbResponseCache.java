@@ -0,0 +1,167 @@
+package com.example.moviecatalog.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Size-bounded, TTL-based cache for OMDB lookups.
+// Successful responses live for omdb.cache.ttl-seconds, "not found" errors are
+// remembered separately for the shorter omdb.cache.negative-ttl-seconds.
+@Component
+public class OmdbResponseCache {
+    private static final Logger logger = LoggerFactory.getLogger(OmdbResponseCache.class);
+
+    @Value("${omdb.cache.max-entries:5000}")
+    private int maxEntries;
+
+    @Value("${omdb.cache.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    @Value("${omdb.cache.negative-ttl-seconds:300}")
+    private long negativeTtlSeconds;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong negativeHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+
+    // Access-ordered so the least recently used entry is evicted first
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() > maxEntries) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    // Returns the live entry for the key, or null on a miss
+    public synchronized Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.isExpired()) {
+            // Expired values stay until overwritten or evicted so they can be served stale
+            if (entry.isNegative()) {
+                entries.remove(key);
+            }
+            // Count each entry's expiry once, not every lookup that finds it expired
+            if (!entry.expirationCounted) {
+                entry.expirationCounted = true;
+                expirations.incrementAndGet();
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.isNegative()) {
+            negativeHits.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return entry;
+    }
+
+    // Last known value for the key even if expired, for use while OMDB is unavailable
+    public synchronized Object getStale(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.isNegative()) {
+            return null;
+        }
+        staleHits.incrementAndGet();
+        return entry.getValue();
+    }
+
+    public synchronized void put(String key, Object value) {
+        entries.put(key, new Entry(value, null, System.currentTimeMillis() + ttlSeconds * 1000));
+    }
+
+    // Whether a value fetched from OMDB at writtenAt is still within the TTL
+    public boolean isFresh(long writtenAt) {
+        return System.currentTimeMillis() <= writtenAt + ttlSeconds * 1000;
+    }
+
+    public synchronized void putNegative(String key, String error) {
+        logger.debug("Caching OMDB negative result for {}: {}", key, error);
+        entries.put(key, new Entry(null, error, System.currentTimeMillis() + negativeTtlSeconds * 1000));
+    }
+
+    public synchronized void evict(String key) {
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    // Counters used to size the cache
+    public synchronized Map<String, Object> getStats() {
+        long hitCount = hits.get() + negativeHits.get();
+        long lookups = hitCount + misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", entries.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hits.get());
+        stats.put("negativeHits", negativeHits.get());
+        stats.put("misses", misses.get());
+        stats.put("evictions", evictions.get());
+        stats.put("expirations", expirations.get());
+        stats.put("staleHits", staleHits.get());
+        stats.put("hitRatio", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        return stats;
+    }
+
+    // Cache keys, normalized so equivalent lookups share one entry
+    public static String detailsKey(String imdbId) {
+        return "i:" + imdbId.trim().toLowerCase();
+    }
+
+    public static String titleKey(String title) {
+        return "t:" + title.trim().toLowerCase();
+    }
+
+    public static String searchKey(String searchTerm, int page) {
+        return "s:" + searchTerm.trim().toLowerCase() + ":" + page;
+    }
+
+    public static final class Entry {
+        private final Object value;
+        private final String error;
+        private final long expiresAt;
+        // Guarded by the cache's lock
+        private boolean expirationCounted;
+
+        private Entry(Object value, String error, long expiresAt) {
+            this.value = value;
+            this.error = error;
+            this.expiresAt = expiresAt;
+        }
+
+        public boolean isNegative() {
+            return error != null;
+        }
+
+        public boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T> T getValue() {
+            return (T) value;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
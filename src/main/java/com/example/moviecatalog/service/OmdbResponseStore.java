@@ -0,0 +1,413 @@
+package com.example.moviecatalog.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+// Local persistent copy of OMDB responses so a restart does not start cold.
+// Responses are appended to a single log file; an in-memory index maps each
+// cache key to the offset of its latest record. Superseded and expired records
+// are dropped by a background compaction that rewrites the live ones.
+//
+// Record layout: [int length][int crc32][long writtenAt][short keyLength][key][json]
+// where length and the CRC cover everything after the CRC field.
+@Component
+public class OmdbResponseStore {
+    private static final Logger logger = LoggerFactory.getLogger(OmdbResponseStore.class);
+
+    private static final String LOG_FILE = "omdb-responses.log";
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES;
+    private static final int MAX_RECORD_BYTES = 4 * 1024 * 1024;
+
+    @Value("${omdb.store.enabled:true}")
+    private boolean enabled;
+
+    @Value("${omdb.store.dir:data/omdb-store}")
+    private String dir;
+
+    @Value("${omdb.store.max-age-hours:168}")
+    private long maxAgeHours;
+
+    // Compact once this share of the file is superseded or expired records
+    @Value("${omdb.store.compact-garbage-ratio:0.5}")
+    private double compactGarbageRatio;
+
+    @Value("${omdb.store.compact-min-bytes:1048576}")
+    private long compactMinBytes;
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final Map<String, IndexEntry> index = new ConcurrentHashMap<>();
+
+    // Reads share the channel; appends and compaction need it exclusively
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Path logPath;
+    private volatile FileChannel channel;
+    private long liveBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+
+    @Autowired
+    public OmdbResponseStore(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Path directory = Paths.get(dir);
+            Files.createDirectories(directory);
+            logPath = directory.resolve(LOG_FILE);
+            channel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            loadIndex();
+            logger.info("OMDB response store opened at {} with {} entries", logPath.toAbsolutePath(), index.size());
+        } catch (IOException e) {
+            // The store is an optimization; run without it rather than fail startup
+            logger.error("Could not open OMDB response store in {}, continuing without it: {}", dir, e.getMessage());
+            closeQuietly();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            closeQuietly();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Stored value for the key with the time it was fetched, or null when absent, expired or unreadable
+    public <T> Stored<T> get(String key, Class<T> type) {
+        lock.readLock().lock();
+        try {
+            IndexEntry entry = index.get(key);
+            if (channel == null || entry == null || isExpired(entry)) {
+                misses.incrementAndGet();
+                return null;
+            }
+            ByteBuffer record = read(entry.offset, entry.length);
+            Record decoded = decode(record);
+            if (decoded == null || !decoded.key.equals(key)) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return new Stored<>(readerFor(type).readValue(decoded.payload), decoded.writtenAt);
+        } catch (IOException e) {
+            logger.warn("Could not read {} from the OMDB response store: {}", key, e.getMessage());
+            misses.incrementAndGet();
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(String key, Object value) {
+        if (channel == null) {
+            return;
+        }
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            logger.warn("Could not serialize {} for the OMDB response store: {}", key, e.getMessage());
+            return;
+        }
+        long writtenAt = System.currentTimeMillis();
+        ByteBuffer record = encode(key, payload, writtenAt);
+        lock.writeLock().lock();
+        try {
+            if (channel == null) {
+                return;
+            }
+            long offset = channel.size();
+            int length = record.remaining();
+            while (record.hasRemaining()) {
+                channel.write(record, offset + (length - record.remaining()));
+            }
+            IndexEntry previous = index.put(key, new IndexEntry(offset, length, writtenAt));
+            liveBytes += length - (previous != null ? previous.length : 0);
+            writes.incrementAndGet();
+        } catch (IOException e) {
+            logger.warn("Could not write {} to the OMDB response store: {}", key, e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${omdb.store.compact-interval-ms:3600000}",
+               fixedDelayString = "${omdb.store.compact-interval-ms:3600000}")
+    public void compactIfNeeded() {
+        if (channel == null) {
+            return;
+        }
+        long fileBytes;
+        long live;
+        lock.readLock().lock();
+        try {
+            if (channel == null) {
+                return;
+            }
+            fileBytes = channel.size();
+            live = liveBytes;
+        } catch (IOException e) {
+            return;
+        } finally {
+            lock.readLock().unlock();
+        }
+        // Expired records count as garbage too, but a few of them alone are not worth
+        // rewriting the file; they are skipped on read until enough garbage piles up
+        long expiredBytes = index.values().stream().filter(this::isExpired).mapToLong(entry -> entry.length).sum();
+        long garbage = fileBytes - live + expiredBytes;
+        if (fileBytes < compactMinBytes || fileBytes == 0) {
+            return;
+        }
+        if ((double) garbage / fileBytes >= compactGarbageRatio) {
+            compact();
+        }
+    }
+
+    // Rewrites only the latest unexpired record of each key into a new file, then swaps it in
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            if (channel == null) {
+                return;
+            }
+            long before = channel.size();
+            Path compacted = logPath.resolveSibling(LOG_FILE + ".compact");
+            Map<String, IndexEntry> newIndex = new HashMap<>();
+            long newLive = 0;
+            try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                long position = 0;
+                for (Map.Entry<String, IndexEntry> e : index.entrySet()) {
+                    IndexEntry entry = e.getValue();
+                    if (isExpired(entry)) {
+                        continue;
+                    }
+                    ByteBuffer record = read(entry.offset, entry.length);
+                    while (record.hasRemaining()) {
+                        position += out.write(record, position);
+                    }
+                    newIndex.put(e.getKey(), new IndexEntry(position - entry.length, entry.length, entry.writtenAt));
+                    newLive += entry.length;
+                }
+                out.force(true);
+            }
+            channel.close();
+            Files.move(compacted, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(logPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            index.clear();
+            index.putAll(newIndex);
+            liveBytes = newLive;
+            compactions.incrementAndGet();
+            logger.info("Compacted OMDB response store from {} to {} bytes ({} entries)", before, newLive, newIndex.size());
+        } catch (IOException e) {
+            logger.error("OMDB response store compaction failed: {}", e.getMessage());
+            reopenAfterFailure();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", channel != null);
+        stats.put("entries", index.size());
+        lock.readLock().lock();
+        try {
+            stats.put("fileBytes", channel != null ? channel.size() : 0);
+            stats.put("liveBytes", liveBytes);
+        } catch (IOException e) {
+            stats.put("fileBytes", null);
+        } finally {
+            lock.readLock().unlock();
+        }
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("writes", writes.get());
+        stats.put("compactions", compactions.get());
+        return stats;
+    }
+
+    // Rebuilds the index from the log; a torn record at the tail (crash mid-write) is cut off
+    private void loadIndex() throws IOException {
+        long size = channel.size();
+        long position = 0;
+        while (position + HEADER_BYTES <= size) {
+            int bodyLength = read(position, HEADER_BYTES).getInt(0);
+            if (bodyLength <= 0 || bodyLength > MAX_RECORD_BYTES || position + HEADER_BYTES + bodyLength > size) {
+                break;
+            }
+            int length = HEADER_BYTES + bodyLength;
+            ByteBuffer record = read(position, length);
+            Record decoded = decode(record);
+            if (decoded == null) {
+                break;
+            }
+            IndexEntry previous = index.put(decoded.key, new IndexEntry(position, length, decoded.writtenAt));
+            liveBytes += length - (previous != null ? previous.length : 0);
+            position += length;
+        }
+        if (position < size) {
+            logger.warn("Truncating unreadable tail of OMDB response store at {} of {} bytes", position, size);
+            channel.truncate(position);
+        }
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static ByteBuffer encode(String key, byte[] payload, long writtenAt) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int bodyLength = Long.BYTES + Short.BYTES + keyBytes.length + payload.length;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + bodyLength);
+        buffer.putInt(bodyLength);
+        buffer.putInt(0);
+        buffer.putLong(writtenAt);
+        buffer.putShort((short) keyBytes.length);
+        buffer.put(keyBytes);
+        buffer.put(payload);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_BYTES, bodyLength);
+        buffer.putInt(Integer.BYTES, (int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    // Null when the CRC does not match
+    private static Record decode(ByteBuffer buffer) {
+        int bodyLength = buffer.getInt();
+        int expectedCrc = buffer.getInt();
+        if (bodyLength != buffer.remaining()) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_BYTES, bodyLength);
+        if ((int) crc.getValue() != expectedCrc) {
+            return null;
+        }
+        long writtenAt = buffer.getLong();
+        byte[] keyBytes = new byte[buffer.getShort()];
+        buffer.get(keyBytes);
+        byte[] payload = new byte[buffer.remaining()];
+        buffer.get(payload);
+        return new Record(new String(keyBytes, StandardCharsets.UTF_8), writtenAt, payload);
+    }
+
+    private boolean isExpired(IndexEntry entry) {
+        return System.currentTimeMillis() - entry.writtenAt > TimeUnit.HOURS.toMillis(maxAgeHours);
+    }
+
+    private ObjectReader readerFor(Class<?> type) {
+        return readers.computeIfAbsent(type, objectMapper::readerFor);
+    }
+
+    private void reopenAfterFailure() {
+        try {
+            if (channel == null || !channel.isOpen()) {
+                channel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+        } catch (IOException e) {
+            logger.error("OMDB response store disabled after failed compaction: {}", e.getMessage());
+            closeQuietly();
+        }
+    }
+
+    private void closeQuietly() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Nothing left to flush; writes go straight to the channel
+            }
+        }
+        channel = null;
+        index.clear();
+    }
+
+    // A stored value and when it was fetched from OMDB
+    public static final class Stored<T> {
+        private final T value;
+        private final long writtenAt;
+
+        private Stored(T value, long writtenAt) {
+            this.value = value;
+            this.writtenAt = writtenAt;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public long getWrittenAt() {
+            return writtenAt;
+        }
+    }
+
+    private static final class IndexEntry {
+        private final long offset;
+        private final int length;
+        private final long writtenAt;
+
+        private IndexEntry(long offset, int length, long writtenAt) {
+            this.offset = offset;
+            this.length = length;
+            this.writtenAt = writtenAt;
+        }
+    }
+
+    private static final class Record {
+        private final String key;
+        private final long writtenAt;
+        private final byte[] payload;
+
+        private Record(String key, long writtenAt, byte[] payload) {
+            this.key = key;
+            this.writtenAt = writtenAt;
+            this.payload = payload;
+        }
+    }
+}
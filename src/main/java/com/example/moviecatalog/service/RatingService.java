@@ -18,12 +18,15 @@ public class RatingService {
     private final RatingRepository ratingRepository;
     private final UserRepository userRepository;
     private final MovieRepository movieRepository;
+    private final MovieAutocompleteIndex autocompleteIndex;
     
     @Autowired
-    public RatingService(RatingRepository ratingRepository, UserRepository userRepository, MovieRepository movieRepository) {
+    public RatingService(RatingRepository ratingRepository, UserRepository userRepository, MovieRepository movieRepository,
+                         MovieAutocompleteIndex autocompleteIndex) {
         this.ratingRepository = ratingRepository;
         this.userRepository = userRepository;
         this.movieRepository = movieRepository;
+        this.autocompleteIndex = autocompleteIndex;
     }
     
     @Transactional
@@ -50,6 +53,8 @@ public class RatingService {
             rating.setMovie(movie);
             rating.setRating(ratingValue);
             rating.setComment(comment);
+            // Autocomplete ranks by rating count; count it once the rating is committed
+            AfterCommit.run(() -> autocompleteIndex.addRating(movieId));
         }
         
         return ratingRepository.save(rating);
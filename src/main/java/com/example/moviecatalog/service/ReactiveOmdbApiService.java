@@ -0,0 +1,431 @@
+package com.example.moviecatalog.service;
+
+import com.example.moviecatalog.model.Movie;
+import com.example.moviecatalog.model.OmdbResponse;
+import com.example.moviecatalog.model.OmdbSearchResults;
+import com.example.moviecatalog.repository.MovieRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Non-blocking OMDB lookups on top of the shared WebClient.
+// OmdbApiService blocks on these for servlet-side callers.
+// When OMDB is unavailable (breaker open, timeouts, quota) lookups fall back to
+// the last cached response or the local catalog, marked stale, and the keys are
+// refreshed in the background once OMDB recovers.
+@Service
+public class ReactiveOmdbApiService {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveOmdbApiService.class);
+
+    private static final int REVALIDATE_CONCURRENCY = 4;
+    private static final int OMDB_PAGE_SIZE = 10;
+    // OMDB refuses pages past 100
+    private static final int OMDB_MAX_PAGES = 100;
+
+    @Value("${omdb.search.fan-out-concurrency:4}")
+    private int fanOutConcurrency;
+
+    @Value("${omdb.bulk.concurrency:8}")
+    private int bulkConcurrency;
+
+    @Value("${omdb.search.enrich-concurrency:5}")
+    private int enrichConcurrency;
+
+    @Value("${omdb.search.enrich-timeout-ms:3000}")
+    private long enrichTimeoutMs;
+
+    private final OmdbClient omdbClient;
+    private final OmdbResponseCache responseCache;
+    private final OmdbRequestCoalescer requestCoalescer;
+    private final OmdbCircuitBreaker circuitBreaker;
+    private final MovieRepository movieRepository;
+    private final OmdbResponseStore responseStore;
+
+    // Keys served stale, with the upstream call that refreshes each one
+    private final Map<String, Supplier<Mono<?>>> pendingRevalidation = new ConcurrentHashMap<>();
+    private final AtomicBoolean revalidating = new AtomicBoolean();
+
+    @Autowired
+    public ReactiveOmdbApiService(OmdbClient omdbClient, OmdbResponseCache responseCache,
+                                  OmdbRequestCoalescer requestCoalescer, OmdbCircuitBreaker circuitBreaker,
+                                  MovieRepository movieRepository, OmdbResponseStore responseStore) {
+        this.omdbClient = omdbClient;
+        this.responseCache = responseCache;
+        this.requestCoalescer = requestCoalescer;
+        this.circuitBreaker = circuitBreaker;
+        this.movieRepository = movieRepository;
+        this.responseStore = responseStore;
+    }
+
+    // Search movies by title, simplifying sequel titles first
+    public Mono<List<OmdbResponse>> searchMovies(String searchTerm, int page) {
+        return search(simplifySearchTerm(searchTerm), page);
+    }
+
+    // One page of search results for the exact term, served from the cache when possible
+    public Mono<List<OmdbResponse>> search(String searchTerm, int page) {
+        return searchPage(searchTerm, page).map(this::toMovies);
+    }
+
+    // Every page of results for the term, up to maxPages. Page 1 gives totalResults,
+    // the remaining pages are fetched concurrently and merged in arrival order,
+    // with duplicates OMDB repeats across pages dropped.
+    public Flux<OmdbResponse> searchMoviesAllPages(String searchTerm, int maxPages) {
+        String term = simplifySearchTerm(searchTerm);
+        return searchPage(term, 1).flatMapMany(first -> {
+            int pages = Math.min(pageCount(first), Math.min(maxPages, OMDB_MAX_PAGES));
+            logger.info("Fetching {} OMDB pages for '{}' ({} results)", pages, term, first.getTotalResults());
+            Flux<OmdbResponse> rest = Flux.range(2, Math.max(0, pages - 1))
+                    .flatMap(page -> searchPage(term, page)
+                            .onErrorResume(e -> {
+                                // A missing page should not end the stream of the ones that arrived
+                                logger.warn("Skipping OMDB page {} for '{}': {}", page, term, e.getMessage());
+                                return Mono.empty();
+                            }), fanOutConcurrency)
+                    .flatMapIterable(this::toMovies);
+            return Flux.fromIterable(toMovies(first)).concatWith(rest);
+        }).distinct(OmdbResponse::getImdbId);
+    }
+
+    // One page of search results with full details for every hit, looked up concurrently.
+    // A hit whose details fail or exceed the per-item timeout is returned as the
+    // search item marked partial instead of failing the whole page.
+    public Mono<List<OmdbResponse>> searchMoviesEnriched(String searchTerm, int page) {
+        return searchMovies(searchTerm, page)
+                .flatMapMany(Flux::fromIterable)
+                .flatMapSequential(hit -> getMovieDetails(hit.getImdbId())
+                        .timeout(Duration.ofMillis(enrichTimeoutMs))
+                        .onErrorResume(e -> {
+                            logger.warn("Details for {} unavailable, returning partial item: {}", hit.getImdbId(), e.toString());
+                            return Mono.just(hit.asPartial());
+                        }), enrichConcurrency)
+                .collectList();
+    }
+
+    private Mono<OmdbSearchResults> searchPage(String searchTerm, int page) {
+        String cacheKey = OmdbResponseCache.searchKey(searchTerm, page);
+        return Mono.defer(() -> {
+            OmdbResponseCache.Entry entry = responseCache.get(cacheKey);
+            if (entry != null) {
+                if (entry.isNegative()) {
+                    logger.info("OMDB cache hit (negative) for {}: {}", cacheKey, entry.getError());
+                    return Mono.just(emptyResults(entry.getError()));
+                }
+                logger.info("OMDB cache hit for {}", cacheKey);
+                return Mono.just(entry.<OmdbSearchResults>getValue());
+            }
+            Supplier<Mono<?>> refresh = () -> fetchSearch(cacheKey, searchTerm, page, OmdbRateLimiter.Priority.BACKGROUND);
+            return fromStore(cacheKey, OmdbSearchResults.class, refresh)
+                    .switchIfEmpty(Mono.defer(() -> fetchSearch(cacheKey, searchTerm, page, OmdbRateLimiter.Priority.SEARCH)))
+                    .onErrorResume(OmdbApiException.class, e -> {
+                        OmdbSearchResults stale = staleSearch(cacheKey);
+                        if (stale == null) {
+                            return Mono.error(e);
+                        }
+                        logger.warn("OMDB unavailable ({}), serving stale search results for {}", e.getMessage(), cacheKey);
+                        markForRevalidation(cacheKey, refresh);
+                        return Mono.just(stale);
+                    });
+        });
+    }
+
+    private Mono<OmdbSearchResults> fetchSearch(String cacheKey, String searchTerm, int page,
+                                                OmdbRateLimiter.Priority priority) {
+        // Concurrent misses for the same key share one upstream call
+        return requestCoalescer.execute(cacheKey, () -> omdbClient.search(searchTerm, page, priority)
+                .map(results -> cacheSearchResults(cacheKey, results))
+                .defaultIfEmpty(emptyResults(null)));
+    }
+
+    // Get movie details by IMDB ID
+    public Mono<OmdbResponse> getMovieDetails(String imdbId) {
+        return getMovieDetails(imdbId, OmdbRateLimiter.Priority.DETAILS);
+    }
+
+    // Get movie details by IMDB ID in the given quota lane (imports outrank browsing)
+    public Mono<OmdbResponse> getMovieDetails(String imdbId, OmdbRateLimiter.Priority priority) {
+        String cacheKey = OmdbResponseCache.detailsKey(imdbId);
+        String lookup = "IMDB ID " + imdbId;
+        Supplier<Mono<?>> refresh = () -> fetchDetails(cacheKey, lookup,
+                () -> omdbClient.details(imdbId, OmdbRateLimiter.Priority.BACKGROUND));
+        return details(cacheKey, lookup, () -> omdbClient.details(imdbId, priority), refresh)
+                .onErrorResume(OmdbApiException.class, e -> staleDetails(cacheKey, e)
+                        .switchIfEmpty(Mono.defer(() -> catalogDetails(imdbId)))
+                        .switchIfEmpty(Mono.error(e))
+                        .doOnNext(stale -> markForRevalidation(cacheKey, refresh)));
+    }
+
+    // Details for many IDs at once, keyed by ID in request order. IDs already in the
+    // catalog come from one IN query; the rest are fetched from OMDB concurrently.
+    // Each value is either an OmdbResponse or a map with an "error" message.
+    public Mono<Map<String, Object>> getMovieDetailsBulk(List<String> imdbIds) {
+        List<String> ids = imdbIds.stream()
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+        return Mono.fromCallable(() -> movieRepository.findByImdbIdIn(ids))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(movies -> {
+                    Map<String, Object> local = new HashMap<>();
+                    for (Movie movie : movies) {
+                        local.put(movie.getImdbId(), OmdbResponse.fromMovie(movie));
+                    }
+                    logger.info("Bulk details: {} of {} IDs found in the catalog", local.size(), ids.size());
+                    List<String> missing = ids.stream()
+                            .filter(id -> !local.containsKey(id))
+                            .collect(Collectors.toList());
+                    return getMovieDetailsConcurrently(missing, OmdbRateLimiter.Priority.DETAILS, bulkConcurrency)
+                            .map(fetched -> {
+                                Map<String, Object> results = new LinkedHashMap<>();
+                                for (String id : ids) {
+                                    results.put(id, local.containsKey(id) ? local.get(id) : fetched.get(id));
+                                }
+                                return results;
+                            });
+                });
+    }
+
+    // OMDB details for each ID with at most `concurrency` lookups in flight, keyed by ID
+    // in the given order. Each value is an OmdbResponse or a map with an "error" message.
+    public Mono<Map<String, Object>> getMovieDetailsConcurrently(List<String> imdbIds, OmdbRateLimiter.Priority priority,
+                                                                 int concurrency) {
+        return Flux.fromIterable(imdbIds)
+                .flatMap(id -> getMovieDetails(id, priority)
+                        .<Object>map(response -> response)
+                        .onErrorResume(e -> Mono.just(Map.of("error", String.valueOf(e.getMessage()))))
+                        .map(result -> Map.entry(id, result)), concurrency)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .map(fetched -> {
+                    Map<String, Object> results = new LinkedHashMap<>();
+                    for (String id : imdbIds) {
+                        results.put(id, fetched.get(id));
+                    }
+                    return results;
+                });
+    }
+
+    // Get movie details by exact title
+    public Mono<OmdbResponse> getMovieDetailsByTitle(String title) {
+        String cacheKey = OmdbResponseCache.titleKey(title);
+        String lookup = "title " + title;
+        Supplier<Mono<?>> refresh = () -> fetchDetails(cacheKey, lookup,
+                () -> omdbClient.detailsByTitle(title, OmdbRateLimiter.Priority.BACKGROUND));
+        return details(cacheKey, lookup, () -> omdbClient.detailsByTitle(title, OmdbRateLimiter.Priority.DETAILS), refresh)
+                .onErrorResume(OmdbApiException.class, e -> staleDetails(cacheKey, e)
+                        .switchIfEmpty(Mono.error(e))
+                        .doOnNext(stale -> markForRevalidation(cacheKey, refresh)));
+    }
+
+    private Mono<OmdbResponse> details(String cacheKey, String lookup, Supplier<Mono<OmdbResponse>> request,
+                                       Supplier<Mono<?>> refresh) {
+        return Mono.defer(() -> {
+            OmdbResponseCache.Entry entry = responseCache.get(cacheKey);
+            if (entry != null) {
+                if (entry.isNegative()) {
+                    logger.info("OMDB cache hit (negative) for {}: {}", cacheKey, entry.getError());
+                    return Mono.error(new RuntimeException("OMDB API error: " + entry.getError()));
+                }
+                logger.info("OMDB cache hit for {}", cacheKey);
+                return Mono.just(entry.<OmdbResponse>getValue());
+            }
+            return fromStore(cacheKey, OmdbResponse.class, refresh)
+                    .switchIfEmpty(Mono.defer(() -> fetchDetails(cacheKey, lookup, request)));
+        });
+    }
+
+    private Mono<OmdbResponse> fetchDetails(String cacheKey, String lookup, Supplier<Mono<OmdbResponse>> request) {
+        // Concurrent misses for the same key share one upstream call
+        return requestCoalescer.execute(cacheKey, () -> request.get()
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Failed to get movie details from OMDB API")))
+                .map(response -> {
+                    if (!"True".equals(response.getResponse())) {
+                        logger.warn("OMDB API returned error for {}: {}", lookup, response.getError());
+                        if (isNotFoundError(response.getError())) {
+                            responseCache.putNegative(cacheKey, response.getError());
+                        }
+                        throw new RuntimeException("OMDB API error: " + response.getError());
+                    }
+                    responseCache.put(cacheKey, response);
+                    persist(cacheKey, response);
+                    return response;
+                }));
+    }
+
+    // Checked on a cache miss before going upstream. Anything the store still holds
+    // (up to omdb.store.max-age-hours) is served and promoted back into the cache; a hit
+    // older than the cache TTL is also queued for a background refresh rather than
+    // making the caller wait on OMDB. The store does file I/O, so it is kept off the event loop.
+    private <T> Mono<T> fromStore(String cacheKey, Class<T> type, Supplier<Mono<?>> refresh) {
+        return Mono.fromCallable(() -> responseStore.get(cacheKey, type))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(stored -> {
+                    responseCache.put(cacheKey, stored.getValue());
+                    if (responseCache.isFresh(stored.getWrittenAt())) {
+                        logger.info("OMDB response store hit for {}", cacheKey);
+                    } else {
+                        logger.info("OMDB response store hit for {} is past the cache TTL, revalidating in the background", cacheKey);
+                        markForRevalidation(cacheKey, refresh);
+                    }
+                    return stored.getValue();
+                });
+    }
+
+    private void persist(String cacheKey, Object value) {
+        Schedulers.boundedElastic().schedule(() -> responseStore.put(cacheKey, value));
+    }
+
+    // Last cached response for the key, even if expired
+    private Mono<OmdbResponse> staleDetails(String cacheKey, OmdbApiException cause) {
+        Object stale = responseCache.getStale(cacheKey);
+        if (!(stale instanceof OmdbResponse)) {
+            return Mono.empty();
+        }
+        logger.warn("OMDB unavailable ({}), serving stale cached details for {}", cause.getMessage(), cacheKey);
+        return Mono.just(((OmdbResponse) stale).asStale());
+    }
+
+    // The movie as stored in the local catalog; JPA blocks, so keep it off the event loop
+    private Mono<OmdbResponse> catalogDetails(String imdbId) {
+        return Mono.fromCallable(() -> movieRepository.findByImdbId(imdbId).orElse(null))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(movie -> {
+                    logger.warn("OMDB unavailable, serving details for {} from the local catalog", imdbId);
+                    return OmdbResponse.fromMovie(movie).asStale();
+                });
+    }
+
+    private OmdbSearchResults staleSearch(String cacheKey) {
+        Object stale = responseCache.getStale(cacheKey);
+        if (!(stale instanceof OmdbSearchResults)) {
+            return null;
+        }
+        OmdbSearchResults cached = (OmdbSearchResults) stale;
+        OmdbSearchResults results = new OmdbSearchResults();
+        results.setResponse(cached.getResponse());
+        results.setTotalResults(cached.getTotalResults());
+        results.setSearch(Arrays.stream(cached.getSearch()).map(OmdbResponse::asStale).toArray(OmdbResponse[]::new));
+        return results;
+    }
+
+    private void markForRevalidation(String cacheKey, Supplier<Mono<?>> refresh) {
+        pendingRevalidation.putIfAbsent(cacheKey, refresh);
+    }
+
+    // Refreshes entries served stale once the breaker lets calls through again.
+    // Uses the background quota lane so revalidation never starves user traffic.
+    // The sweep is subscribed to, not waited on, and a new one only starts once the last has finished.
+    @Scheduled(initialDelayString = "${omdb.breaker.revalidate-interval-ms:60000}",
+               fixedDelayString = "${omdb.breaker.revalidate-interval-ms:60000}")
+    public void revalidateStaleEntries() {
+        if (pendingRevalidation.isEmpty() || circuitBreaker.getState() == OmdbCircuitBreaker.State.OPEN
+                || !revalidating.compareAndSet(false, true)) {
+            return;
+        }
+        logger.info("Revalidating {} stale OMDB entries", pendingRevalidation.size());
+        Flux.fromIterable(new ArrayList<>(pendingRevalidation.entrySet()))
+                .flatMap(entry -> entry.getValue().get()
+                        .doOnSuccess(refreshed -> pendingRevalidation.remove(entry.getKey(), entry.getValue()))
+                        .onErrorResume(e -> {
+                            if (!(e instanceof OmdbApiException)) {
+                                // OMDB answered, so the key has nothing stale left to refresh
+                                pendingRevalidation.remove(entry.getKey(), entry.getValue());
+                            }
+                            logger.debug("Revalidation of {} failed: {}", entry.getKey(), e.getMessage());
+                            return Mono.empty();
+                        }), REVALIDATE_CONCURRENCY)
+                .doFinally(signal -> revalidating.set(false))
+                .subscribe();
+    }
+
+    public int getPendingRevalidationCount() {
+        return pendingRevalidation.size();
+    }
+
+    private OmdbSearchResults cacheSearchResults(String cacheKey, OmdbSearchResults results) {
+        logger.info("OMDB API response: {}", results.getResponse());
+        if (!"True".equals(results.getResponse())) {
+            logger.warn("OMDB API returned error: {}", results.getError());
+            if (isNotFoundError(results.getError())) {
+                responseCache.putNegative(cacheKey, results.getError());
+            }
+            return results;
+        }
+        if (results.getSearch() != null) {
+            responseCache.put(cacheKey, results);
+            persist(cacheKey, results);
+        }
+        return results;
+    }
+
+    private List<OmdbResponse> toMovies(OmdbSearchResults results) {
+        if (!"True".equals(results.getResponse())) {
+            return Collections.emptyList();
+        }
+        if (results.getSearch() == null) {
+            logger.warn("No search results returned from OMDB API");
+            return Collections.emptyList();
+        }
+        logger.info("Found {} results from OMDB API", results.getSearch().length);
+        return Collections.unmodifiableList(Arrays.asList(results.getSearch()));
+    }
+
+    private static OmdbSearchResults emptyResults(String error) {
+        OmdbSearchResults results = new OmdbSearchResults();
+        results.setResponse("False");
+        results.setError(error);
+        return results;
+    }
+
+    // OMDB returns ten results per page
+    private static int pageCount(OmdbSearchResults results) {
+        if (!"True".equals(results.getResponse()) || results.getTotalResults() == null) {
+            return 0;
+        }
+        try {
+            int total = Integer.parseInt(results.getTotalResults().trim());
+            return (total + OMDB_PAGE_SIZE - 1) / OMDB_PAGE_SIZE;
+        } catch (NumberFormatException e) {
+            logger.warn("Unexpected OMDB totalResults: {}", results.getTotalResults());
+            return 1;
+        }
+    }
+
+    // Simplify search term if it's too specific
+    private String simplifySearchTerm(String searchTerm) {
+        if (searchTerm.contains("Vol.") || searchTerm.contains("Part")) {
+            // For sequels, just use the main title for better results
+            String simplifiedSearchTerm = searchTerm.replaceAll("Vol\\..*$", "").replaceAll("Part.*$", "").trim();
+            logger.info("Simplified search term from '{}' to '{}'", searchTerm, simplifiedSearchTerm);
+            return simplifiedSearchTerm;
+        }
+        return searchTerm;
+    }
+
+    // Only "Movie not found!" style errors are stable enough to cache
+    private static boolean isNotFoundError(String error) {
+        return error != null && error.toLowerCase().contains("not found");
+    }
+}
@@ -0,0 +1,13 @@
+-- Full-text search over the catalog (MovieSearchMode.FULLTEXT).
+-- Applied after Hibernate has created/updated the tables; idempotent.
+-- The generated column keeps search_vector in step with every insert and update;
+-- adding it rewrites the table once.
+ALTER TABLE movies ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(director, '') || ' ' || coalesce(actors, '')), 'B') ||
+        setweight(to_tsvector('english', coalesce(genre, '')), 'C') ||
+        setweight(to_tsvector('english', coalesce(plot, '')), 'D')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_movies_search_vector ON movies USING GIN (search_vector);
@@ -0,0 +1,6 @@
+-- Trigram index on lower(title) for MovieSearchMode.TITLE and FUZZY (pg_trgm).
+-- Serves LIKE '%x%' substring matches and the <% word-similarity operator alike.
+-- Applied after Hibernate has created/updated the tables; idempotent.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_movies_title_trgm ON movies USING GIN (lower(title) gin_trgm_ops);
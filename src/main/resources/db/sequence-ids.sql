@@ -0,0 +1,22 @@
+-- Moves movies, ratings and import_job_items from IDENTITY ids to the pooled
+-- <table>_seq sequences the entities now use (allocationSize 50, so INCREMENT BY 50).
+-- Runs before Hibernate on every start (spring.sql.init) and is idempotent:
+-- a fresh database just gets the sequences; an existing table is migrated once,
+-- with its sequence continuing after the highest id already in use.
+DO $$
+DECLARE
+    t text;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['movies', 'ratings', 'import_job_items'] LOOP
+        IF to_regclass(t || '_seq') IS NULL THEN
+            EXECUTE format('CREATE SEQUENCE %I START WITH 1 INCREMENT BY 50', t || '_seq');
+            IF to_regclass(t) IS NOT NULL THEN
+                EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', t);
+                EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP DEFAULT', t);
+                -- Hibernate's pooled optimizer hands out (value - 49) .. value for each nextval
+                EXECUTE format('SELECT setval(%L, (SELECT COALESCE(MAX(id), 0) FROM %I) + 50, false)', t || '_seq', t);
+            END IF;
+        END IF;
+    END LOOP;
+END
+$$
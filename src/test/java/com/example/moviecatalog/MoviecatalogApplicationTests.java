@@ -1,11 +1,29 @@
 package com.example.moviecatalog;
 
+import com.example.moviecatalog.omdb.OmdbSimulator;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
 @SpringBootTest
 class MoviecatalogApplicationTests {
 
+	// Keeps the test run off the real OMDB (no quota, no network)
+	private static final OmdbSimulator omdb = new OmdbSimulator().start();
+
+	@DynamicPropertySource
+	static void omdbProperties(DynamicPropertyRegistry registry) {
+		registry.add("omdb.api.base-url", omdb::getBaseUrl);
+		registry.add("omdb.store.enabled", () -> "false");
+	}
+
+	@AfterAll
+	static void stopOmdb() {
+		omdb.close();
+	}
+
 	@Test
 	void contextLoads() {
 	}
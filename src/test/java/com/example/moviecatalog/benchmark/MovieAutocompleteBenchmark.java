@@ -0,0 +1,105 @@
+package com.example.moviecatalog.benchmark;
+
+import com.example.moviecatalog.model.Movie;
+import com.example.moviecatalog.model.MovieSuggestion;
+import com.example.moviecatalog.service.MovieAutocompleteIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Latency of /api/movies/autocomplete over 1M generated titles, for a one-letter
+// prefix (a range of tens of thousands of titles) and a longer one. Titles arrive
+// through addAll in import-sized chunks, so loading also exercises the buffer
+// merges; a quarter are rated, and 1000 titles are removed again. Correctness is
+// covered by MovieAutocompleteIndexTest.
+//
+//   mvn -B test-compile
+//   java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+//        com.example.moviecatalog.benchmark.MovieAutocompleteBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class MovieAutocompleteBenchmark {
+
+    private static final int TITLES = 1_000_000;
+    private static final int CHUNK = 500;
+    private static final String[] WORDS = {"dark", "star", "night", "guardians", "return", "lost", "city", "shadow",
+            "king", "ghost", "river", "silent", "iron", "last", "golden", "empire", "storm", "secret", "wild", "blood",
+            "crimson", "frozen", "broken", "hidden", "eternal", "fallen", "rising", "savage", "quiet", "electric",
+            "glass", "galaxy", "planet", "ocean", "desert", "forest", "kingdom", "legend", "machine", "dream", "island"};
+
+    @Param({"s", "Guardians of the G"})
+    private String prefix;
+
+    private MovieAutocompleteIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new MovieAutocompleteIndex(null, null);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "mergeThreshold", 4096);
+        ReflectionTestUtils.setField(index, "maxResults", 20);
+
+        List<Movie> chunk = new ArrayList<>(CHUNK);
+        long start = System.nanoTime();
+        for (int i = 1; i <= TITLES; i++) {
+            Movie movie = new Movie();
+            movie.setId((long) i);
+            movie.setTitle(capitalize(WORDS[(i * 7) % WORDS.length]) + " of the "
+                    + capitalize(WORDS[(i * 31) % WORDS.length]) + " " + (i % 1000));
+            movie.setYear(String.valueOf(1950 + i % 70));
+            chunk.add(movie);
+            if (chunk.size() == CHUNK) {
+                index.addAll(chunk);
+                chunk = new ArrayList<>(CHUNK);
+            }
+        }
+        index.addAll(chunk);
+        for (int i = 1; i <= TITLES; i += 4) {
+            int ratings = 1 + (i * 17) % 50;
+            for (int r = 0; r < ratings; r++) {
+                index.addRating((long) i);
+            }
+        }
+        for (int i = 3; i <= TITLES; i += TITLES / 1000) {
+            index.remove((long) i);
+        }
+        System.out.printf("%nLoaded in %d ms: %s%n", (System.nanoTime() - start) / 1_000_000, index.getStats());
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    @Benchmark
+    public List<MovieSuggestion> suggest() {
+        return index.suggest(prefix, 10);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MovieAutocompleteBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
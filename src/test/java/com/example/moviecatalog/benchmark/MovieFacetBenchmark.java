@@ -0,0 +1,110 @@
+package com.example.moviecatalog.benchmark;
+
+import com.example.moviecatalog.model.Movie;
+import com.example.moviecatalog.service.MovieFacetIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Latency of /api/movies/browse (ids and facet counts, without loading the page of
+// movies) over 1M generated movies with skewed genre, language and country values:
+// no filter, one filter, and genre + decade + language.
+//
+//   mvn -B test-compile
+//   java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+//        com.example.moviecatalog.benchmark.MovieFacetBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MovieFacetBenchmark {
+
+    private static final int MOVIES = 1_000_000;
+    private static final String[] GENRES = {"Drama", "Comedy", "Action", "Thriller", "Romance", "Crime", "Horror",
+            "Adventure", "Documentary", "Family", "Mystery", "Fantasy", "Sci-Fi", "Animation", "Biography", "History",
+            "Music", "War", "Sport", "Western", "Musical", "Short", "News", "Film-Noir", "Reality-TV"};
+    private static final String[] RATED = {"R", "PG-13", "PG", "G", "Not Rated", "Unrated", "TV-MA", "TV-14", "NC-17",
+            "Approved", "Passed", "X"};
+
+    @Param({"none", "genre", "genre+decade+language"})
+    private String filter;
+
+    private MovieFacetIndex index;
+    private Map<String, List<String>> filters;
+
+    @Setup
+    public void setUp() {
+        index = new MovieFacetIndex(null);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "maxValues", 50);
+
+        Random random = new Random(42);
+        List<Movie> chunk = new ArrayList<>();
+        for (int i = 1; i <= MOVIES; i++) {
+            Movie movie = new Movie();
+            movie.setId((long) i);
+            movie.setGenre(GENRES[skewed(random, GENRES.length)] + ", " + GENRES[skewed(random, GENRES.length)]);
+            movie.setYear(String.valueOf(1915 + skewed(random, 110)));
+            movie.setLanguage("Language " + skewed(random, 120) + (random.nextInt(4) == 0 ? ", English" : ""));
+            movie.setCountry("Country " + skewed(random, 180));
+            movie.setRated(RATED[skewed(random, RATED.length)]);
+            chunk.add(movie);
+            if (chunk.size() == 1000) {
+                index.addAll(chunk);
+                chunk = new ArrayList<>();
+            }
+        }
+        index.addAll(chunk);
+        System.out.printf("%n%s%n", index.getStats());
+
+        filters = new LinkedHashMap<>();
+        if (filter.contains("genre")) {
+            filters.put("genre", List.of("Action"));
+        }
+        if (filter.contains("decade")) {
+            filters.put("decade", List.of("2010s"));
+        }
+        if (filter.contains("language")) {
+            filters.put("language", List.of("English"));
+        }
+    }
+
+    // Roughly Zipf-distributed index below n: a few very common values and a long tail
+    private static int skewed(Random random, int n) {
+        return (int) Math.min(n - 1, Math.floor(Math.pow(n + 1, random.nextDouble()) - 1));
+    }
+
+    @Benchmark
+    public Map<String, Object> query() {
+        return index.query(filters, 0, 10);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MovieFacetBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
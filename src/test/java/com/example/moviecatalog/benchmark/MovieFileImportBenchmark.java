@@ -0,0 +1,143 @@
+package com.example.moviecatalog.benchmark;
+
+import com.example.moviecatalog.model.Movie;
+import com.example.moviecatalog.model.MovieImportResult;
+import com.example.moviecatalog.model.OmdbResponse;
+import com.example.moviecatalog.model.User;
+import com.example.moviecatalog.service.MovieFileImportService;
+import com.example.moviecatalog.service.MovieService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Throughput of /api/admin/movies/import over a generated 1M-line file, CSV of
+// IMDB IDs or NDJSON OMDB records. MovieService is stubbed out, so this measures
+// the streaming, parsing and chunking the endpoint adds on top of a batch import.
+// The fork runs with -Xmx64m: holding the whole file's IDs or records in memory
+// would not fit, so finishing at all shows that memory stays flat.
+//
+//   mvn -B test-compile
+//   java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+//        com.example.moviecatalog.benchmark.MovieFileImportBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx64m")
+public class MovieFileImportBenchmark {
+
+    private static final int LINES = 1_000_000;
+
+    @Param({"csv", "ndjson"})
+    private String format;
+
+    private Path file;
+    private MovieFileImportService importService;
+    private final User admin = new User();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("movie-import-", "." + format);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if (format.equals("csv")) {
+                out.write("imdbID,title\n");
+            }
+            for (int i = 0; i < LINES; i++) {
+                String imdbId = String.format("tt%07d", i);
+                if (format.equals("csv")) {
+                    out.write(imdbId + ",Movie " + i + "\n");
+                } else {
+                    out.write("{\"Title\":\"Movie " + i + "\",\"Year\":\"" + (1950 + i % 70) + "\",\"Rated\":\"PG-13\","
+                            + "\"Runtime\":\"" + (80 + i % 60) + " min\",\"Genre\":\"Action, Drama\","
+                            + "\"Director\":\"Director " + (i % 997) + "\",\"Actors\":\"Actor A, Actor B\","
+                            + "\"Plot\":\"A short plot for movie " + i + ".\",\"imdbRating\":\"7.1\","
+                            + "\"imdbID\":\"" + imdbId + "\",\"Type\":\"movie\",\"Response\":\"True\"}\n");
+                }
+            }
+        }
+
+        importService = new MovieFileImportService(new StubMovieService(), new ObjectMapper());
+        ReflectionTestUtils.setField(importService, "chunkSize", 500);
+        ReflectionTestUtils.setField(importService, "maxReportedFailures", 100);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Map<String, Object> importFile() throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            Map<String, Object> summary = importService.importFile(in, admin);
+            if (!Long.valueOf(LINES).equals(summary.get("added"))) {
+                throw new IllegalStateException("Unexpected import summary: " + summary);
+            }
+            return summary;
+        }
+    }
+
+    // Accepts every chunk as newly added without touching OMDB or the database
+    private static class StubMovieService extends MovieService {
+        StubMovieService() {
+            super(null, null, null, null, null, null, null);
+        }
+
+        @Override
+        public List<MovieImportResult> addMovies(List<String> imdbIds, User admin) {
+            List<MovieImportResult> results = new ArrayList<>(imdbIds.size());
+            for (String imdbId : imdbIds) {
+                Movie movie = new Movie();
+                movie.setImdbId(imdbId);
+                results.add(MovieImportResult.added(movie));
+            }
+            return results;
+        }
+
+        @Override
+        public List<MovieImportResult> addMovieRecords(List<OmdbResponse> records, User admin) {
+            List<MovieImportResult> results = new ArrayList<>(records.size());
+            for (OmdbResponse record : records) {
+                results.add(MovieImportResult.added(record.toMovie()));
+            }
+            return results;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MovieFileImportBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.moviecatalog.benchmark;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// 100k movie inserts through Hibernate with the old IDENTITY ids versus the pooled
+// sequence ids Movie uses now, same batch settings as application.properties.
+// IDENTITY makes Hibernate insert row by row to read back each key; the sequence
+// lets it send batches of 50 (rewritten into multi-row INSERTs by the driver).
+// Each iteration prints rows/s. Needs a PostgreSQL database; the benchmark creates
+// and drops its own bench_movies_* tables:
+//
+//   mvn -B test-compile
+//   java -Dbench.db.url=jdbc:postgresql://localhost:5432/movie_catalog -Dbench.db.user=postgres -Dbench.db.password=postgres \
+//        -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+//        com.example.moviecatalog.benchmark.MovieInsertBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class MovieInsertBenchmark {
+
+    private static final int ROWS = 100_000;
+    // Rows per transaction, as in a chunked import
+    private static final int CHUNK = 1_000;
+
+    @Param({"identity", "sequence"})
+    private String ids;
+
+    private SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Configuration configuration = new Configuration()
+                .setProperty("hibernate.connection.url", System.getProperty("bench.db.url",
+                        "jdbc:postgresql://localhost:5432/movie_catalog") + "?reWriteBatchedInserts=true")
+                .setProperty("hibernate.connection.username", System.getProperty("bench.db.user", "postgres"))
+                .setProperty("hibernate.connection.password", System.getProperty("bench.db.password", "postgres"))
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.jdbc.batch_size", "50")
+                .setProperty("hibernate.order_inserts", "true")
+                .setProperty("hibernate.order_updates", "true");
+        configuration.addAnnotatedClass(ids.equals("identity") ? IdentityMovie.class : SequenceMovie.class);
+        sessionFactory = configuration.buildSessionFactory();
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() {
+        String table = ids.equals("identity") ? "bench_movies_identity" : "bench_movies_sequence";
+        sessionFactory.inTransaction(session -> session.createNativeMutationQuery("TRUNCATE " + table).executeUpdate());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public int insert() {
+        long start = System.nanoTime();
+        try (Session session = sessionFactory.openSession()) {
+            for (int from = 0; from < ROWS; from += CHUNK) {
+                Transaction transaction = session.beginTransaction();
+                for (int i = from; i < from + CHUNK; i++) {
+                    session.persist(ids.equals("identity") ? fill(new IdentityMovie(), i) : fill(new SequenceMovie(), i));
+                }
+                transaction.commit();
+                session.clear();
+            }
+        }
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        System.out.printf("%s: %d rows in %d ms, %d rows/s%n", ids, ROWS, millis, ROWS * 1000L / millis);
+        return ROWS;
+    }
+
+    private static <T extends BenchMovie> T fill(T movie, int i) {
+        movie.imdbId = String.format("tt%07d", i);
+        movie.title = "Movie " + i;
+        movie.year = String.valueOf(1950 + i % 70);
+        movie.genre = "Action, Drama";
+        movie.plot = "A short plot for movie " + i + ".";
+        return movie;
+    }
+
+    // The columns of Movie that an import fills in
+    @MappedSuperclass
+    public abstract static class BenchMovie {
+        @Column(name = "imdb_id", nullable = false, unique = true)
+        String imdbId;
+
+        @Column(nullable = false)
+        String title;
+
+        String year;
+
+        String genre;
+
+        @Column(columnDefinition = "TEXT")
+        String plot;
+    }
+
+    @Entity
+    @Table(name = "bench_movies_identity")
+    public static class IdentityMovie extends BenchMovie {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+    }
+
+    @Entity
+    @Table(name = "bench_movies_sequence")
+    public static class SequenceMovie extends BenchMovie {
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bench_movies_seq")
+        @SequenceGenerator(name = "bench_movies_seq", sequenceName = "bench_movies_seq", allocationSize = 50)
+        Long id;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MovieInsertBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.moviecatalog.benchmark;
+
+import com.example.moviecatalog.model.Movie;
+import com.example.moviecatalog.service.MovieSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Query latency of /api/public/movies/search/index over 500k generated movies,
+// for a selective AND query and a broad OR query. The index is filled through
+// addAll (the path MovieService uses after each insert), so no database is needed.
+//
+//   mvn -B test-compile
+//   java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+//        com.example.moviecatalog.benchmark.MovieSearchIndexBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MovieSearchIndexBenchmark {
+
+    private static final int MOVIES = 500_000;
+    private static final String[] WORDS = {"dark", "star", "night", "guardians", "return", "lost", "city", "shadow",
+            "king", "ghost", "river", "silent", "iron", "last", "golden", "empire", "storm", "secret", "wild", "blood",
+            "crimson", "frozen", "broken", "hidden", "eternal", "fallen", "rising", "savage", "quiet", "electric",
+            "glass", "galaxy", "planet", "ocean", "desert", "forest", "kingdom", "legend", "machine", "dream", "island"};
+    private static final String[] GENRES = {"Action", "Drama", "Comedy", "Horror", "Sci-Fi", "Romance", "Thriller"};
+
+    @Param({"and:guardians galaxy storm", "or:frozen kingdom"})
+    private String query;
+
+    private MovieSearchIndex index;
+    private boolean matchAll;
+    private String terms;
+
+    @Setup
+    public void setUp() {
+        index = new MovieSearchIndex(null);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "maxResults", 100);
+
+        List<Movie> chunk = new ArrayList<>();
+        for (int i = 1; i <= MOVIES; i++) {
+            Movie movie = new Movie();
+            movie.setId((long) i);
+            movie.setImdbId(String.format("tt%07d", i));
+            movie.setTitle(WORDS[(i * 7) % WORDS.length] + " " + WORDS[(i * 13) % WORDS.length] + " of the "
+                    + WORDS[(i * 31) % WORDS.length]);
+            movie.setYear(String.valueOf(1950 + i % 70));
+            movie.setDirector("Director " + (i % 997));
+            movie.setActors("Actor " + (i % 5003) + ", Actor " + (i % 7001));
+            movie.setGenre(GENRES[i % GENRES.length] + ", " + GENRES[(i / 7) % GENRES.length]);
+            movie.setLanguage(i % 5 == 0 ? "French" : "English");
+            movie.setCountry(i % 3 == 0 ? "UK" : "USA");
+            chunk.add(movie);
+            if (chunk.size() == 1000) {
+                index.addAll(chunk);
+                chunk = new ArrayList<>();
+            }
+        }
+        index.addAll(chunk);
+
+        matchAll = query.startsWith("and:");
+        terms = query.substring(query.indexOf(':') + 1);
+    }
+
+    @Benchmark
+    public Map<String, Object> search() {
+        return index.search(terms, matchAll, 20);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MovieSearchIndexBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.moviecatalog.benchmark;
+
+import com.example.moviecatalog.model.OmdbResponse;
+import com.example.moviecatalog.model.OmdbSearchResults;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Allocation per OMDB response: the old line-joined String + new ObjectMapper
+// per call versus parsing the bytes with a shared ObjectReader.
+// Compare the gc.alloc.rate.norm column (bytes per operation).
+//
+//   mvn -B test-compile
+//   java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+//        com.example.moviecatalog.benchmark.OmdbParsingBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OmdbParsingBenchmark {
+
+    private static final String DETAILS_JSON = "{\"Title\":\"Guardians of the Galaxy Vol. 2\",\"Year\":\"2017\","
+            + "\"Rated\":\"PG-13\",\"Released\":\"05 May 2017\",\"Runtime\":\"136 min\","
+            + "\"Genre\":\"Action, Adventure, Comedy\",\"Director\":\"James Gunn\","
+            + "\"Writer\":\"James Gunn, Dan Abnett, Andy Lanning\","
+            + "\"Actors\":\"Chris Pratt, Zoe Saldana, Dave Bautista\","
+            + "\"Plot\":\"The Guardians struggle to keep together as a team while dealing with their personal family "
+            + "issues, notably Star-Lord's encounter with his father, the ambitious celestial being Ego.\","
+            + "\"Language\":\"English\",\"Country\":\"United States\",\"Awards\":\"Nominated for 1 Oscar. 15 wins & 60 nominations total\","
+            + "\"Poster\":\"https://m.media-amazon.com/images/M/MV5BNjM0NTc0NzItM2FlYS00YzEwLWE0YmUtNTA2ZWIzODc2OTgxXkEyXkFqcGdeQXVyNTgwNzIyNzg@._V1_SX300.jpg\","
+            + "\"Ratings\":[{\"Source\":\"Internet Movie Database\",\"Value\":\"7.6/10\"},"
+            + "{\"Source\":\"Rotten Tomatoes\",\"Value\":\"85%\"},{\"Source\":\"Metacritic\",\"Value\":\"67/100\"}],"
+            + "\"Metascore\":\"67\",\"imdbRating\":\"7.6\",\"imdbVotes\":\"772,117\",\"imdbID\":\"tt3896198\","
+            + "\"Type\":\"movie\",\"DVD\":\"10 Jul 2017\",\"BoxOffice\":\"$389,813,101\",\"Production\":\"N/A\","
+            + "\"Website\":\"N/A\",\"Response\":\"True\"}";
+
+    private byte[] detailsBody;
+    private byte[] searchBody;
+    private ObjectReader detailsReader;
+    private ObjectReader searchReader;
+
+    @Setup
+    public void setUp() {
+        // OMDB pretty-prints nothing, but split lines so the legacy path does real line work
+        detailsBody = DETAILS_JSON.replace(",\"", ",\n\"").getBytes(StandardCharsets.UTF_8);
+
+        StringBuilder search = new StringBuilder("{\"Search\":[");
+        for (int i = 0; i < 10; i++) {
+            if (i > 0) {
+                search.append(",\n");
+            }
+            search.append("{\"Title\":\"Guardians of the Galaxy ").append(i)
+                    .append("\",\"Year\":\"2014\",\"imdbID\":\"tt20156").append(i)
+                    .append("\",\"Type\":\"movie\",\"Poster\":\"https://m.media-amazon.com/images/M/MV5BMTAwMjU5OTgxNjZeQTJeQWpwZ15BbWU4MDUxNDYxODEx._V1_SX300.jpg\"}");
+        }
+        search.append("],\n\"totalResults\":\"87\",\"Response\":\"True\"}");
+        searchBody = search.toString().getBytes(StandardCharsets.UTF_8);
+
+        ObjectMapper shared = new ObjectMapper();
+        detailsReader = shared.readerFor(OmdbResponse.class);
+        searchReader = shared.readerFor(OmdbSearchResults.class);
+    }
+
+    @Benchmark
+    public OmdbResponse detailsLineJoined() throws IOException {
+        return new ObjectMapper().readValue(readLines(detailsBody), OmdbResponse.class);
+    }
+
+    @Benchmark
+    public OmdbResponse detailsStreaming() throws IOException {
+        return detailsReader.readValue(new ByteArrayInputStream(detailsBody));
+    }
+
+    @Benchmark
+    public OmdbSearchResults searchLineJoined() throws IOException {
+        return new ObjectMapper().readValue(readLines(searchBody), OmdbSearchResults.class);
+    }
+
+    @Benchmark
+    public OmdbSearchResults searchStreaming() throws IOException {
+        return searchReader.readValue(new ByteArrayInputStream(searchBody));
+    }
+
+    // What makeHttpRequest used to do with the connection's input stream
+    private static String readLines(byte[] body) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8))) {
+            StringBuilder response = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                response.append(line);
+            }
+            return response.toString();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(OmdbParsingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.moviecatalog.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+// Title search latency over 1M titles, running the same SQL as MovieRepository:
+//   substringSeqScan  - LIKE '%x%' with index scans disabled, i.e. the old findByTitleContainingIgnoreCase
+//   substringTrigram  - the same LIKE served by the lower(title) gin_trgm_ops index (mode=title)
+//   fuzzyTrigram      - mode=fuzzy: word-ordered LIKE or <% word similarity, ranked
+// Needs a PostgreSQL database with the pg_trgm extension available; the benchmark
+// creates bench_titles once (about a minute) and drops it at the end:
+//
+//   mvn -B test-compile
+//   java -Dbench.db.url=jdbc:postgresql://localhost:5432/movie_catalog -Dbench.db.user=postgres -Dbench.db.password=postgres \
+//        -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+//        com.example.moviecatalog.benchmark.TitleSearchBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TitleSearchBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final int PAGE_SIZE = 10;
+
+    // A partial-word query and one with typos
+    @Param({"guardi gal", "guardains galxy"})
+    private String query;
+
+    private Connection connection;
+    private PreparedStatement substring;
+    private PreparedStatement fuzzy;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("bench.db.url", "jdbc:postgresql://localhost:5432/movie_catalog"),
+                System.getProperty("bench.db.user", "postgres"),
+                System.getProperty("bench.db.password", "postgres"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            statement.execute("DROP TABLE IF EXISTS bench_titles");
+            statement.execute("CREATE TABLE bench_titles (id bigint PRIMARY KEY, title varchar(255) NOT NULL)");
+            // "Guardians Storm Of The Galaxy"-style titles from a fixed vocabulary; a few hundred match both query words
+            statement.execute("INSERT INTO bench_titles (id, title) "
+                    + "SELECT i, initcap(w[1 + (i * 7) % n] || ' ' || w[1 + (i * 13) % n] || ' of the ' || w[1 + (i * 31) % n]) "
+                    + "FROM generate_series(1, " + ROWS + ") AS i, "
+                    + "(SELECT ARRAY['dark', 'star', 'night', 'guardians', 'return', 'lost', 'city', 'shadow', 'king', 'ghost', "
+                    + "'river', 'silent', 'iron', 'last', 'golden', 'empire', 'storm', 'secret', 'wild', 'blood', 'crimson', "
+                    + "'frozen', 'broken', 'hidden', 'eternal', 'fallen', 'rising', 'savage', 'quiet', 'electric', 'glass', "
+                    + "'galaxy', 'planet', 'ocean', 'desert', 'forest', 'kingdom', 'legend', 'machine', 'dream', 'island'] AS w, "
+                    + "41 AS n) AS vocabulary");
+            statement.execute("CREATE INDEX bench_titles_trgm ON bench_titles USING GIN (lower(title) gin_trgm_ops)");
+            statement.execute("ANALYZE bench_titles");
+        }
+        connection.setAutoCommit(false);
+        substring = connection.prepareStatement(
+                "SELECT * FROM bench_titles WHERE lower(title) LIKE ? ESCAPE '\\' LIMIT " + PAGE_SIZE);
+        fuzzy = connection.prepareStatement(
+                "SELECT * FROM bench_titles WHERE lower(title) LIKE ? ESCAPE '\\' OR ? <% lower(title) "
+                        + "ORDER BY word_similarity(?, lower(title)) DESC, id LIMIT " + PAGE_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.rollback();
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_titles");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public int substringSeqScan() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LOCAL enable_bitmapscan = off");
+            statement.execute("SET LOCAL enable_indexscan = off");
+        }
+        substring.setString(1, "%" + query.replace(' ', '%') + "%");
+        return countAndEnd(substring);
+    }
+
+    @Benchmark
+    public int substringTrigram() throws SQLException {
+        substring.setString(1, "%" + query.replace(' ', '%') + "%");
+        return countAndEnd(substring);
+    }
+
+    @Benchmark
+    public int fuzzyTrigram() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SELECT set_config('pg_trgm.word_similarity_threshold', '0.5', true)");
+        }
+        fuzzy.setString(1, "%" + query.replace(' ', '%') + "%");
+        fuzzy.setString(2, query);
+        fuzzy.setString(3, query);
+        return countAndEnd(fuzzy);
+    }
+
+    private int countAndEnd(PreparedStatement statement) throws SQLException {
+        int rows = 0;
+        try (ResultSet results = statement.executeQuery()) {
+            while (results.next()) {
+                rows++;
+            }
+        }
+        // Ends the transaction so SET LOCAL does not leak into the next benchmark
+        connection.rollback();
+        return rows;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TitleSearchBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
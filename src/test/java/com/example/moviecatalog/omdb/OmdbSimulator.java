@@ -0,0 +1,330 @@
+package com.example.moviecatalog.omdb;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Local stand-in for omdbapi.com, for tests and load/benchmark runs that must not
+// spend quota or need network access. Replays recorded ?s=, ?i= and ?t= responses
+// from fixture files and can add latency, random errors and quota exhaustion.
+//
+// Point the application at it with omdb.api.base-url=<getBaseUrl()>. Standalone:
+//   java -cp target/test-classes:... com.example.moviecatalog.omdb.OmdbSimulator \
+//        [port] [fixtureDir] [recordFromUrl]
+//
+// Fixtures live under a directory (default: classpath omdb-fixtures/):
+//   details/<imdbId>.json, title/<slug>.json, search/<slug>-<page>.json
+// where slug is the lower-cased query with runs of non-alphanumerics replaced by '-'.
+// With recording enabled, a missing fixture is fetched from the real OMDB and saved.
+public class OmdbSimulator implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(OmdbSimulator.class);
+
+    private static final String CLASSPATH_FIXTURES = "omdb-fixtures/";
+    private static final String NOT_FOUND = "{\"Response\":\"False\",\"Error\":\"Movie not found!\"}";
+    private static final String LIMIT_REACHED = "{\"Response\":\"False\",\"Error\":\"Request limit reached!\"}";
+
+    // Delay before each response is written
+    public interface Latency {
+        long nextMillis();
+
+        static Latency none() {
+            return () -> 0;
+        }
+
+        static Latency fixed(long millis) {
+            return () -> millis;
+        }
+
+        static Latency uniform(long minMillis, long maxMillis) {
+            return () -> ThreadLocalRandom.current().nextLong(minMillis, maxMillis + 1);
+        }
+
+        // Long-tailed like real network latency; sigma around 0.5 gives a p99 near 3x the median
+        static Latency logNormal(double medianMillis, double sigma) {
+            return () -> Math.round(medianMillis * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+        }
+    }
+
+    private Path fixtureDir;
+    private String recordFromUrl;
+    private Latency latency = Latency.none();
+    private double errorRate;
+    private int errorStatus = 503;
+    private long quota = -1;
+    private Random random = new Random();
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private HttpClient recordingClient;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong notFound = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong quotaRejections = new AtomicLong();
+
+    // Fixtures from a directory instead of the classpath
+    public OmdbSimulator fixtures(Path dir) {
+        this.fixtureDir = dir;
+        return this;
+    }
+
+    // Fetch and save missing fixtures from the given OMDB base URL (needs a real API key in requests)
+    public OmdbSimulator recordFrom(String omdbBaseUrl, Path dir) {
+        this.recordFromUrl = omdbBaseUrl;
+        this.fixtureDir = dir;
+        return this;
+    }
+
+    public OmdbSimulator latency(Latency latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    // Share of requests answered with errorStatus instead of the fixture
+    public OmdbSimulator errorRate(double errorRate, int errorStatus) {
+        this.errorRate = errorRate;
+        this.errorStatus = errorStatus;
+        return this;
+    }
+
+    // Requests served before answering like an exhausted OMDB key; negative means unlimited
+    public OmdbSimulator quota(long requests) {
+        this.quota = requests;
+        return this;
+    }
+
+    // Reproducible error injection
+    public OmdbSimulator seed(long seed) {
+        this.random = new Random(seed);
+        return this;
+    }
+
+    public OmdbSimulator start() {
+        return start(0);
+    }
+
+    public OmdbSimulator start(int port) {
+        try {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // Daemon threads so a forgotten close() never keeps a test JVM alive
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "omdb-simulator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (recordFromUrl != null) {
+            recordingClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        }
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        logger.info("OMDB simulator listening on {}", getBaseUrl());
+        return this;
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    // Restores the quota as if a new day had started
+    public void resetQuota() {
+        requests.set(0);
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("requests", requests.get());
+        stats.put("replayed", replayed.get());
+        stats.put("recorded", recorded.get());
+        stats.put("notFound", notFound.get());
+        stats.put("injectedErrors", injectedErrors.get());
+        stats.put("quotaRejections", quotaRejections.get());
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            long count = requests.incrementAndGet();
+            sleep(latency.nextMillis());
+
+            if (quota >= 0 && count > quota) {
+                quotaRejections.incrementAndGet();
+                respond(exchange, 401, LIMIT_REACHED);
+                return;
+            }
+            if (errorRate > 0 && nextDouble() < errorRate) {
+                injectedErrors.incrementAndGet();
+                respond(exchange, errorStatus, "Service Unavailable");
+                return;
+            }
+
+            Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+            String fixture = fixturePath(params);
+            if (fixture == null) {
+                respond(exchange, 200, "{\"Response\":\"False\",\"Error\":\"Incorrect IMDb ID.\"}");
+                return;
+            }
+            String body = readFixture(fixture);
+            if (body == null && recordingClient != null) {
+                body = record(exchange.getRequestURI(), fixture);
+            }
+            if (body == null) {
+                notFound.incrementAndGet();
+                respond(exchange, 200, NOT_FOUND);
+                return;
+            }
+            replayed.incrementAndGet();
+            respond(exchange, 200, body);
+        } catch (RuntimeException e) {
+            logger.error("OMDB simulator failed to handle {}: {}", exchange.getRequestURI(), e.getMessage(), e);
+            respond(exchange, 500, "Simulator error");
+        }
+    }
+
+    // Relative fixture path for the query, or null when it is not a ?s=, ?i= or ?t= request
+    static String fixturePath(Map<String, String> params) {
+        if (params.containsKey("i")) {
+            return "details/" + params.get("i").trim().toLowerCase(Locale.ROOT) + ".json";
+        }
+        if (params.containsKey("t")) {
+            return "title/" + slug(params.get("t")) + ".json";
+        }
+        if (params.containsKey("s")) {
+            return "search/" + slug(params.get("s")) + "-" + params.getOrDefault("page", "1") + ".json";
+        }
+        return null;
+    }
+
+    static String slug(String value) {
+        return value.trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
+    }
+
+    private String readFixture(String relativePath) {
+        try {
+            if (fixtureDir != null) {
+                Path file = fixtureDir.resolve(relativePath);
+                return Files.isRegularFile(file) ? Files.readString(file) : null;
+            }
+            try (InputStream in = getClass().getClassLoader().getResourceAsStream(CLASSPATH_FIXTURES + relativePath)) {
+                return in == null ? null : new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String record(URI requestUri, String relativePath) {
+        URI upstream = URI.create(recordFromUrl).resolve("?" + requestUri.getRawQuery());
+        try {
+            HttpResponse<String> response = recordingClient.send(
+                    HttpRequest.newBuilder(upstream).timeout(Duration.ofSeconds(15)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                logger.warn("Not recording {}: OMDB answered {}", relativePath, response.statusCode());
+                return null;
+            }
+            Path file = fixtureDir.resolve(relativePath);
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, response.body());
+            recorded.incrementAndGet();
+            logger.info("Recorded OMDB fixture {}", file);
+            return response.body();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private synchronized double nextDouble() {
+        return random.nextDouble();
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        OmdbSimulator simulator = new OmdbSimulator()
+                .latency(Latency.logNormal(120, 0.5));
+        if (args.length > 2) {
+            simulator.recordFrom(args[2], Paths.get(args[1]));
+        } else if (args.length > 1) {
+            simulator.fixtures(Paths.get(args[1]));
+        }
+        simulator.start(port);
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.moviecatalog.service;
+
+import com.example.moviecatalog.model.ImportJob;
+import com.example.moviecatalog.model.ImportJobItem;
+import com.example.moviecatalog.model.Movie;
+import com.example.moviecatalog.model.MovieImportResult;
+import com.example.moviecatalog.model.User;
+import com.example.moviecatalog.repository.ImportJobItemRepository;
+import com.example.moviecatalog.repository.ImportJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Restart behaviour of background import jobs against in-memory repositories
+class ImportJobServiceTest {
+
+    private final Map<Long, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, ImportJobItem> items = new ConcurrentHashMap<>();
+    private final List<ImportJob.Status> savedStatuses = new ArrayList<>();
+
+    private ImportJobRepository jobRepository;
+    private ImportJobItemRepository itemRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jobRepository = mock(ImportJobRepository.class);
+        when(jobRepository.findById(anyLong())).thenAnswer(inv -> Optional.ofNullable(copy(jobs.get(inv.<Long>getArgument(0)))));
+        when(jobRepository.save(any(ImportJob.class))).thenAnswer(inv -> {
+            ImportJob job = inv.getArgument(0);
+            if (job.getId() == null) {
+                job.setId((long) jobs.size() + 1);
+            }
+            synchronized (savedStatuses) {
+                savedStatuses.add(job.getStatus());
+            }
+            jobs.put(job.getId(), copy(job));
+            return job;
+        });
+        when(jobRepository.findByStatusIn(any())).thenAnswer(inv -> {
+            Collection<ImportJob.Status> statuses = inv.getArgument(0);
+            return jobs.values().stream().filter(job -> statuses.contains(job.getStatus()))
+                    .map(ImportJobServiceTest::copy).collect(Collectors.toList());
+        });
+
+        itemRepository = mock(ImportJobItemRepository.class);
+        when(itemRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<ImportJobItem> saved = inv.getArgument(0);
+            for (ImportJobItem item : saved) {
+                if (item.getId() == null) {
+                    item.setId((long) items.size() + 1);
+                }
+                items.put(item.getId(), copy(item));
+            }
+            return saved;
+        });
+        when(itemRepository.findByJobIdAndStatusOrderByPositionAsc(anyLong(), any(), any())).thenAnswer(inv -> {
+            Long jobId = inv.getArgument(0);
+            ImportJobItem.Status status = inv.getArgument(1);
+            Pageable page = inv.getArgument(2);
+            return items.values().stream()
+                    .filter(item -> item.getJobId().equals(jobId) && item.getStatus() == status)
+                    .sorted((a, b) -> a.getPosition() - b.getPosition())
+                    .limit(page.getPageSize())
+                    .map(ImportJobServiceTest::copy)
+                    .collect(Collectors.toList());
+        });
+
+        transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void jobInterruptedByShutdownStaysRunningAndResumesOnNextStart() throws Exception {
+        CountDownLatch secondChunkStarted = new CountDownLatch(1);
+        MovieService blockingService = mock(MovieService.class);
+        when(blockingService.addMovies(anyList(), any())).thenAnswer(inv -> {
+            List<String> ids = inv.getArgument(0);
+            if (ids.get(0).equals("tt0000003")) {
+                secondChunkStarted.countDown();
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    // What Mono.block() throws when its thread is interrupted
+                    throw new IllegalStateException("java.lang.InterruptedException", e);
+                }
+            }
+            return added(ids);
+        });
+
+        ImportJobService first = service(blockingService, 50);
+        ImportJob job = first.submit(List.of("tt0000001", "tt0000002", "tt0000003", "tt0000004", "tt0000005"), new User());
+        assertThat(secondChunkStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        first.stopWorkers();
+
+        ImportJob stopped = jobs.get(job.getId());
+        assertThat(stopped.getStatus()).isEqualTo(ImportJob.Status.RUNNING);
+        assertThat(stopped.getError()).isNull();
+        assertThat(stopped.getAddedCount()).isEqualTo(2);
+        synchronized (savedStatuses) {
+            assertThat(savedStatuses).doesNotContain(ImportJob.Status.FAILED);
+        }
+
+        // Next start picks the job up from its last checkpoint
+        List<String> resumedIds = new ArrayList<>();
+        MovieService workingService = mock(MovieService.class);
+        when(workingService.addMovies(anyList(), any())).thenAnswer(inv -> {
+            List<String> ids = inv.getArgument(0);
+            synchronized (resumedIds) {
+                resumedIds.addAll(ids);
+            }
+            return added(ids);
+        });
+        ImportJobService second = service(workingService, 5_000);
+        second.resumeInterruptedJobs();
+        ImportJob finished = awaitStatus(job.getId(), ImportJob.Status.COMPLETED);
+        second.stopWorkers();
+
+        assertThat(finished.getStatus()).isEqualTo(ImportJob.Status.COMPLETED);
+        assertThat(finished.getAddedCount()).isEqualTo(5);
+        assertThat(resumedIds).containsExactly("tt0000003", "tt0000004", "tt0000005");
+    }
+
+    @Test
+    void shutdownLetsTheChunkInFlightCheckpointAndStartsNoNewOne() throws Exception {
+        CountDownLatch firstChunkStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MovieService slowService = mock(MovieService.class);
+        when(slowService.addMovies(anyList(), any())).thenAnswer(inv -> {
+            firstChunkStarted.countDown();
+            release.await();
+            return added(inv.getArgument(0));
+        });
+
+        ImportJobService service = service(slowService, 5_000);
+        ImportJob job = service.submit(List.of("tt0000001", "tt0000002", "tt0000003", "tt0000004"), new User());
+        assertThat(firstChunkStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException ignored) {
+                // Released right away then
+            }
+            release.countDown();
+        });
+        releaser.start();
+        service.stopWorkers();
+
+        ImportJob stopped = jobs.get(job.getId());
+        assertThat(stopped.getStatus()).isEqualTo(ImportJob.Status.RUNNING);
+        assertThat(stopped.getAddedCount()).isEqualTo(2);
+        assertThat(items.values().stream().filter(item -> item.getStatus() == ImportJobItem.Status.PENDING).count())
+                .isEqualTo(2);
+    }
+
+    private ImportJobService service(MovieService movieService, long shutdownGraceMs) {
+        ImportJobService service = new ImportJobService(jobRepository, itemRepository, movieService, transactionTemplate);
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+        ReflectionTestUtils.setField(service, "workers", 1);
+        ReflectionTestUtils.setField(service, "shutdownGraceMs", shutdownGraceMs);
+        service.startWorkers();
+        return service;
+    }
+
+    private ImportJob awaitStatus(Long jobId, ImportJob.Status status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (jobs.get(jobId).getStatus() != status && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return jobs.get(jobId);
+    }
+
+    private static List<MovieImportResult> added(List<String> imdbIds) {
+        List<MovieImportResult> results = new ArrayList<>();
+        for (String imdbId : imdbIds) {
+            Movie movie = new Movie();
+            movie.setImdbId(imdbId);
+            results.add(MovieImportResult.added(movie));
+        }
+        return results;
+    }
+
+    // Repositories hand out detached copies, as JPA would across transactions
+    private static ImportJob copy(ImportJob job) {
+        if (job == null) {
+            return null;
+        }
+        ImportJob copy = new ImportJob();
+        copy.setId(job.getId());
+        copy.setStatus(job.getStatus());
+        copy.setCreatedBy(job.getCreatedBy());
+        copy.setTotalItems(job.getTotalItems());
+        copy.setAddedCount(job.getAddedCount());
+        copy.setExistingCount(job.getExistingCount());
+        copy.setFailedCount(job.getFailedCount());
+        copy.setRunStartedAt(job.getRunStartedAt());
+        copy.setProcessedAtRunStart(job.getProcessedAtRunStart());
+        copy.setCheckpointAt(job.getCheckpointAt());
+        copy.setFinishedAt(job.getFinishedAt());
+        copy.setError(job.getError());
+        return copy;
+    }
+
+    private static ImportJobItem copy(ImportJobItem item) {
+        ImportJobItem copy = new ImportJobItem();
+        copy.setId(item.getId());
+        copy.setJobId(item.getJobId());
+        copy.setPosition(item.getPosition());
+        copy.setImdbId(item.getImdbId());
+        copy.setStatus(item.getStatus());
+        copy.setError(item.getError());
+        return copy;
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.moviecatalog.service;
+
+import com.example.moviecatalog.model.Movie;
+import com.example.moviecatalog.model.MovieSuggestion;
+import com.example.moviecatalog.repository.MovieRepository;
+import com.example.moviecatalog.repository.RatingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// A merge threshold of 8 makes a few dozen titles go through buffer flushes, run
+// merges and tombstone compaction; answers are checked against a brute-force model
+class MovieAutocompleteIndexTest {
+
+    private static final int MERGE_THRESHOLD = 8;
+    private static final String[] WORDS = {"Star", "star", "Stardust", "Starship", "Stalker", "Alien", "alien",
+            "Aliens", "Heat", "Her", "Up", "Ürümqi", "Straße"};
+    private static final String[] PREFIXES = {"s", "St", "sta", "star", "STARS", "a", "alien", "Aliens", "h",
+            "he", "u", "ü", "ÜR", "strass", "straß", "x", "Star 1"};
+
+    private MovieAutocompleteIndex index;
+    // Model: movie id -> title and rating count
+    private final Map<Integer, String> titles = new HashMap<>();
+    private final Map<Integer, Integer> weights = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        index = newIndex(null, null);
+    }
+
+    @Test
+    void matchesBruteForceUnderRandomAddsRemovesAndRatings() {
+        Random random = new Random(42);
+        for (int step = 0; step < 5_000; step++) {
+            int op = random.nextInt(10);
+            int id = 1 + random.nextInt(300);
+            if (op < 4) {
+                add(id, WORDS[random.nextInt(WORDS.length)] + " " + random.nextInt(20));
+            } else if (op < 6) {
+                List<Movie> batch = new ArrayList<>();
+                for (int i = 0; i < 1 + random.nextInt(12); i++) {
+                    int batchId = 1 + random.nextInt(300);
+                    String title = WORDS[random.nextInt(WORDS.length)] + " " + random.nextInt(20);
+                    batch.removeIf(movie -> movie.getId() == batchId);
+                    batch.add(movie(batchId, title));
+                }
+                index.addAll(batch);
+                for (Movie movie : batch) {
+                    record(movie.getId().intValue(), movie.getTitle());
+                }
+            } else if (op < 8) {
+                index.remove((long) id);
+                titles.remove(id);
+                weights.remove(id);
+            } else {
+                index.addRating((long) id);
+                weights.computeIfPresent(id, (key, weight) -> weight + 1);
+            }
+            if (step % 50 == 0) {
+                assertMatchesModel();
+            }
+        }
+        assertMatchesModel();
+        assertThat(((Number) index.getStats().get("merges")).longValue()).isPositive();
+        assertThat(index.getStats().get("titles")).isEqualTo(titles.size());
+    }
+
+    @Test
+    void compactsTombstonesAndKeepsAnsweringCorrectly() {
+        for (int id = 1; id <= 64; id++) {
+            add(id, "Star " + id);
+        }
+        for (int id = 1; id <= 64; id += 3) {
+            index.addRating((long) id);
+            weights.computeIfPresent(id, (key, weight) -> weight + 1);
+        }
+        long mergesBefore = ((Number) index.getStats().get("merges")).longValue();
+
+        for (int id = 2; id <= 64; id += 2) {
+            index.remove((long) id);
+            titles.remove(id);
+            weights.remove(id);
+        }
+
+        assertThat(((Number) index.getStats().get("merges")).longValue()).isGreaterThan(mergesBefore);
+        assertThat(index.getStats().get("titles")).isEqualTo(32);
+        assertMatchesModel();
+
+        // Removed movies can come back after compaction, unrated
+        add(2, "Star 2");
+        index.addRating(2L);
+        weights.computeIfPresent(2, (key, weight) -> weight + 1);
+        assertMatchesModel();
+    }
+
+    @Test
+    void reAddedMovieKeepsItsRatingsUnderItsNewTitle() {
+        add(1, "Alien");
+        add(2, "Aliens");
+        index.addRating(1L);
+        index.addRating(1L);
+
+        index.add(movie(1, "Alien: Director's Cut"));
+
+        List<MovieSuggestion> suggestions = index.suggest("ali", 10);
+        assertThat(suggestions).extracting(MovieSuggestion::getTitle).containsExactly("Alien: Director's Cut", "Aliens");
+        assertThat(suggestions.get(0).getRatingCount()).isEqualTo(2);
+    }
+
+    @Test
+    void rebuildLoadsTitlesAndRatingCountsAndReplaysConcurrentChanges() {
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        RatingRepository ratingRepository = mock(RatingRepository.class);
+        List<Object[]> rows = List.of(
+                new Object[]{1L, "Heat", "1995"},
+                new Object[]{2L, "Her", "2013"},
+                new Object[]{3L, "Hereditary", "2018"});
+        when(movieRepository.findTitlesAfter(anyLong(), any())).thenReturn(List.of());
+        when(movieRepository.findTitlesAfter(eq(0L), any())).thenReturn(rows.subList(0, 2));
+        index = newIndex(movieRepository, ratingRepository);
+        when(movieRepository.findTitlesAfter(eq(2L), any())).thenAnswer(inv -> {
+            // Changes made while the build is loading reach the new index too
+            index.add(movie(4, "Hell or High Water"));
+            index.remove(2L);
+            return rows.subList(2, 3);
+        });
+        when(ratingRepository.countByMovie()).thenReturn(List.of(new Object[]{3L, 5L}, new Object[]{1L, 2L}));
+
+        index.rebuild();
+
+        List<MovieSuggestion> suggestions = index.suggest("he", 10);
+        assertThat(suggestions).extracting(MovieSuggestion::getMovieId).containsExactly(3L, 1L, 4L);
+        assertThat(suggestions).extracting(MovieSuggestion::getYear).containsExactly(2018, 1995, null);
+        assertThat(suggestions).extracting(MovieSuggestion::getRatingCount).containsExactly(5, 2, 0);
+    }
+
+    @Test
+    void blankPrefixSuggestsNothingAndLimitIsCapped() {
+        for (int id = 1; id <= 40; id++) {
+            add(id, "Star " + id);
+        }
+
+        assertThat(index.suggest("  ", 10)).isEmpty();
+        assertThat(index.suggest(null, 10)).isEmpty();
+        assertThat(index.suggest("star", 1000)).hasSize(20);
+    }
+
+    private void add(int id, String title) {
+        index.add(movie(id, title));
+        record(id, title);
+    }
+
+    // A re-added movie keeps its rating count, a new one starts at zero
+    private void record(int id, String title) {
+        titles.put(id, title);
+        weights.putIfAbsent(id, 0);
+    }
+
+    private void assertMatchesModel() {
+        for (String prefix : PREFIXES) {
+            List<Long> expected = titles.keySet().stream()
+                    .filter(id -> titles.get(id).regionMatches(true, 0, prefix, 0, prefix.length()))
+                    .sorted(Comparator.<Integer>comparingInt(id -> -weights.get(id))
+                            .thenComparing(titles::get, String.CASE_INSENSITIVE_ORDER)
+                            .thenComparing(id -> id))
+                    .limit(20)
+                    .map(Integer::longValue)
+                    .toList();
+            List<MovieSuggestion> actual = index.suggest(prefix, 20);
+            assertThat(actual).extracting(MovieSuggestion::getMovieId).as("prefix '%s'", prefix).isEqualTo(expected);
+            for (MovieSuggestion suggestion : actual) {
+                int id = suggestion.getMovieId().intValue();
+                assertThat(suggestion.getTitle()).isEqualTo(titles.get(id));
+                assertThat(suggestion.getRatingCount()).isEqualTo(weights.get(id));
+            }
+        }
+    }
+
+    private static MovieAutocompleteIndex newIndex(MovieRepository movieRepository, RatingRepository ratingRepository) {
+        MovieAutocompleteIndex index = new MovieAutocompleteIndex(movieRepository, ratingRepository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "buildPageSize", 2);
+        ReflectionTestUtils.setField(index, "mergeThreshold", MERGE_THRESHOLD);
+        ReflectionTestUtils.setField(index, "maxResults", 20);
+        return index;
+    }
+
+    private static Movie movie(long id, String title) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle(title);
+        return movie;
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.moviecatalog.service;
+
+import com.example.moviecatalog.model.Movie;
+import com.example.moviecatalog.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MovieFacetIndexTest {
+
+    private static final String[] GENRES = {"Action", "Comedy", "Drama", "Horror", "Sci-Fi", "Animation"};
+    private static final String[] LANGUAGES = {"English", "French", "Spanish", "Japanese"};
+    private static final String[] COUNTRIES = {"United States", "France", "Japan", "United Kingdom"};
+    private static final String[] RATINGS = {"G", "PG", "PG-13", "R", "N/A"};
+
+    private final Map<Long, Movie> catalog = new TreeMap<>();
+    private MovieFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        when(movieRepository.findFacetFieldsAfter(anyLong(), any())).thenAnswer(inv -> {
+            long lastId = inv.getArgument(0);
+            return catalog.values().stream()
+                    .filter(movie -> movie.getId() > lastId)
+                    .limit(100)
+                    .map(movie -> new Object[]{movie.getId(), movie.getGenre(), movie.getYear(),
+                            movie.getLanguage(), movie.getCountry(), movie.getRated()})
+                    .collect(Collectors.toList());
+        });
+        index = new MovieFacetIndex(movieRepository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "buildPageSize", 100);
+        ReflectionTestUtils.setField(index, "maxValues", 1000);
+    }
+
+    @Test
+    void splitsFieldsAndDerivesDecades() {
+        put(1, "Action, Adventure", "2014", "English, Hindi", "USA", "PG-13");
+        put(2, "Action", "1999–2003", "N/A", "UK", "N/A");
+        put(3, "N/A", "N/A", "English", "USA", "R");
+        index.rebuild();
+
+        Map<String, Map<String, Integer>> facets = facets(index.query(Map.of(), 0, 10));
+        assertThat(facets.get("genre")).containsExactly(Map.entry("Action", 2), Map.entry("Adventure", 1));
+        assertThat(facets.get("decade")).containsOnly(Map.entry("2010s", 1), Map.entry("1990s", 1));
+        assertThat(facets.get("year")).containsOnly(Map.entry("2014", 1), Map.entry("1999", 1));
+        assertThat(facets.get("language")).containsExactly(Map.entry("English", 2), Map.entry("Hindi", 1));
+        assertThat(facets.get("rated")).containsOnly(Map.entry("PG-13", 1), Map.entry("R", 1));
+    }
+
+    @Test
+    void valuesWithinAFacetAreOredAndFacetsAnded() {
+        put(1, "Action", "2014", "English", "USA", "PG-13");
+        put(2, "Comedy", "2015", "English", "USA", "PG");
+        put(3, "Drama", "2015", "French", "France", "R");
+        put(4, "Action, Comedy", "1995", "English", "UK", "R");
+        index.rebuild();
+
+        Map<String, Object> result = index.query(filters("genre", "action", "COMEDY"), 0, 10);
+        assertThat(result.get("total")).isEqualTo(3);
+        assertThat(result.get("movieIds")).isEqualTo(List.of(1L, 2L, 4L));
+
+        result = index.query(filters("genre", "Action", "Comedy", "decade", "2010s"), 0, 10);
+        assertThat(result.get("movieIds")).isEqualTo(List.of(1L, 2L));
+        Map<String, Map<String, Integer>> facets = facets(result);
+        // The genre counts ignore the genre selection itself, only the decade filter applies
+        assertThat(facets.get("genre")).containsOnly(Map.entry("Action", 1), Map.entry("Comedy", 1), Map.entry("Drama", 1));
+        // The decade counts ignore the decade selection
+        assertThat(facets.get("decade")).containsOnly(Map.entry("2010s", 2), Map.entry("1990s", 1));
+        // Unselected facets count the matches
+        assertThat(facets.get("language")).containsOnly(Map.entry("English", 2));
+
+        assertThat(index.query(filters("genre", "Western"), 0, 10).get("total")).isEqualTo(0);
+    }
+
+    @Test
+    void pagesThroughMatchesInIdOrder() {
+        for (int id = 1; id <= 25; id++) {
+            put(id, id % 2 == 0 ? "Drama" : "Comedy", "2000", "English", "USA", "PG");
+        }
+        index.rebuild();
+
+        assertThat(index.query(filters("genre", "Drama"), 0, 5).get("movieIds")).isEqualTo(List.of(2L, 4L, 6L, 8L, 10L));
+        assertThat(index.query(filters("genre", "Drama"), 10, 5).get("movieIds")).isEqualTo(List.of(22L, 24L));
+        assertThat(index.query(filters("genre", "Drama"), 100, 5).get("movieIds")).isEqualTo(List.of());
+    }
+
+    @Test
+    void removedAndReAddedMoviesAreCountedOnce() {
+        put(1, "Action", "2014", "English", "USA", "PG-13");
+        put(2, "Action", "2015", "English", "USA", "PG");
+        index.rebuild();
+
+        index.remove(1L);
+        Map<String, Object> result = index.query(Map.of(), 0, 10);
+        assertThat(result.get("total")).isEqualTo(1);
+        assertThat(facets(result).get("genre")).containsOnly(Map.entry("Action", 1));
+        assertThat(facets(result).get("year")).containsOnly(Map.entry("2015", 1));
+
+        // Back with a different genre: its old values must not linger
+        Movie changed = movie(1, "Horror", "2014", "English", "USA", "R");
+        index.add(changed);
+        index.add(changed);
+        result = index.query(Map.of(), 0, 10);
+        assertThat(result.get("total")).isEqualTo(2);
+        assertThat(facets(result).get("genre")).containsOnly(Map.entry("Action", 1), Map.entry("Horror", 1));
+        assertThat(facets(result).get("rated")).containsOnly(Map.entry("R", 1), Map.entry("PG", 1));
+        assertThat(index.query(filters("genre", "Action"), 0, 10).get("movieIds")).isEqualTo(List.of(2L));
+    }
+
+    @Test
+    void matchesBruteForceCountsForRandomFilters() {
+        Random random = new Random(11);
+        for (int id = 1; id <= 3000; id++) {
+            putRandom(id, random);
+        }
+        index.rebuild();
+        // Live changes after the build, so the forward ordinals are exercised too
+        for (int i = 0; i < 300; i++) {
+            long id = 1 + random.nextInt(3200);
+            if (random.nextInt(3) == 0) {
+                catalog.remove(id);
+                index.remove(id);
+            } else {
+                index.add(putRandom(id, random));
+            }
+        }
+
+        for (int round = 0; round < 200; round++) {
+            Map<String, List<String>> filters = new LinkedHashMap<>();
+            // Anything from one rare value (counted by walking the matches) to several
+            // common ones (counted by intersecting each value's bitmap)
+            if (random.nextBoolean()) {
+                filters.put("genre", pick(random, GENRES, 1 + random.nextInt(4)));
+            }
+            if (random.nextInt(3) == 0) {
+                filters.put("language", pick(random, LANGUAGES, 1 + random.nextInt(3)));
+            }
+            if (random.nextInt(3) == 0) {
+                filters.put("decade", List.of((1950 + 10 * random.nextInt(7)) + "s"));
+            }
+            if (random.nextInt(4) == 0) {
+                filters.put("rated", pick(random, RATINGS, 1 + random.nextInt(2)));
+            }
+            Map<String, Object> result = index.query(filters, 0, 20);
+
+            List<Long> matches = catalog.keySet().stream()
+                    .filter(id -> matches(id, filters, null))
+                    .collect(Collectors.toList());
+            assertThat(result.get("total")).as("%s", filters).isEqualTo(matches.size());
+            assertThat(result.get("movieIds")).as("%s", filters).isEqualTo(matches.subList(0, Math.min(20, matches.size())));
+            for (String facet : MovieFacetIndex.FACETS) {
+                Map<String, Integer> expected = new HashMap<>();
+                for (Long id : catalog.keySet()) {
+                    if (matches(id, filters, facet)) {
+                        for (String value : values(catalog.get(id), facet)) {
+                            expected.merge(value, 1, Integer::sum);
+                        }
+                    }
+                }
+                assertThat(facets(result).get(facet)).as("%s counts for %s", facet, filters).isEqualTo(expected);
+            }
+        }
+    }
+
+    private boolean matches(Long id, Map<String, List<String>> filters, String excludedFacet) {
+        for (Map.Entry<String, List<String>> filter : filters.entrySet()) {
+            if (filter.getKey().equals(excludedFacet)) {
+                continue;
+            }
+            List<String> wanted = filter.getValue().stream().map(v -> v.toLowerCase(Locale.ROOT)).toList();
+            if (values(catalog.get(id), filter.getKey()).stream().noneMatch(v -> wanted.contains(v.toLowerCase(Locale.ROOT)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<String> values(Movie movie, String facet) {
+        String year = movie.getYear();
+        return switch (facet) {
+            case "genre" -> split(movie.getGenre());
+            case "decade" -> List.of(year.substring(0, 3) + "0s");
+            case "year" -> List.of(year);
+            case "language" -> split(movie.getLanguage());
+            case "country" -> split(movie.getCountry());
+            default -> split(movie.getRated());
+        };
+    }
+
+    private static List<String> split(String field) {
+        List<String> values = new ArrayList<>();
+        for (String part : field.split(",")) {
+            if (!part.isBlank() && !part.strip().equals("N/A") && !values.contains(part.strip())) {
+                values.add(part.strip());
+            }
+        }
+        return values;
+    }
+
+    private Movie putRandom(long id, Random random) {
+        // Skewed so some values cover most movies and others only a few
+        String genre = String.join(", ", pick(random, GENRES, 1 + random.nextInt(3)));
+        String language = random.nextInt(10) < 7 ? "English" : String.join(", ", pick(random, LANGUAGES, 1 + random.nextInt(2)));
+        String country = COUNTRIES[Math.min(random.nextInt(6), COUNTRIES.length - 1)];
+        String year = String.valueOf(1950 + (int) (70 * Math.sqrt(random.nextDouble())));
+        return put(id, genre, year, language, country, RATINGS[random.nextInt(RATINGS.length)]);
+    }
+
+    private static List<String> pick(Random random, String[] values, int count) {
+        List<String> picked = new ArrayList<>();
+        while (picked.size() < count) {
+            // Low indexes are picked more often
+            String value = values[(int) (values.length * Math.pow(random.nextDouble(), 2))];
+            if (!picked.contains(value)) {
+                picked.add(value);
+            }
+        }
+        return picked;
+    }
+
+    private Movie put(long id, String genre, String year, String language, String country, String rated) {
+        Movie movie = movie(id, genre, year, language, country, rated);
+        catalog.put(id, movie);
+        return movie;
+    }
+
+    private static Movie movie(long id, String genre, String year, String language, String country, String rated) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setGenre(genre);
+        movie.setYear(year);
+        movie.setLanguage(language);
+        movie.setCountry(country);
+        movie.setRated(rated);
+        return movie;
+    }
+
+    private static Map<String, List<String>> filters(String... facetAndValues) {
+        Map<String, List<String>> filters = new LinkedHashMap<>();
+        String facet = null;
+        for (String item : facetAndValues) {
+            if (MovieFacetIndex.FACETS.contains(item)) {
+                facet = item;
+            } else {
+                filters.computeIfAbsent(facet, key -> new ArrayList<>()).add(item);
+            }
+        }
+        return filters;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, Integer>> facets(Map<String, Object> result) {
+        return (Map<String, Map<String, Integer>>) result.get("facets");
+    }
+}
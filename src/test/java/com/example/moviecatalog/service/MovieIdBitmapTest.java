@@ -0,0 +1,215 @@
+package com.example.moviecatalog.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MovieIdBitmapTest {
+
+    @Test
+    void chunkTurnsIntoABitsetPast4096IdsAndBackAt2048() {
+        MovieIdBitmap bitmap = new MovieIdBitmap();
+        for (int id = 0; id < 4096 * 2; id += 2) {
+            bitmap.add(id);
+        }
+        assertThat(container(bitmap, 0)).isInstanceOf(char[].class);
+
+        assertThat(bitmap.add(1)).isTrue();
+        assertThat(container(bitmap, 0)).isInstanceOf(long[].class);
+        assertThat(bitmap.cardinality()).isEqualTo(4097);
+        assertThat(bitmap.add(1)).isFalse();
+
+        // Stays a bitset until well below the limit, so ids at the edge do not flip it back and forth
+        int removed = 0;
+        for (int id = 0; bitmap.cardinality() > 2049; id += 2, removed++) {
+            assertThat(bitmap.remove(id)).isTrue();
+        }
+        assertThat(container(bitmap, 0)).isInstanceOf(long[].class);
+        assertThat(bitmap.remove(removed * 2)).isTrue();
+        assertThat(container(bitmap, 0)).isInstanceOf(char[].class);
+        assertThat(bitmap.cardinality()).isEqualTo(2048);
+
+        assertThat(bitmap.contains(1)).isTrue();
+        assertThat(bitmap.contains(removed * 2)).isFalse();
+        assertThat(bitmap.contains(removed * 2 + 2)).isTrue();
+        assertThat(bitmap.remove(removed * 2)).isFalse();
+    }
+
+    @Test
+    void emptiedChunkIsDropped() {
+        MovieIdBitmap bitmap = bitmap(5, 70_000, 140_000);
+
+        bitmap.remove(70_000);
+
+        assertThat(bitmap.page(0, 10)).containsExactly(5, 140_000);
+        assertThat(bitmap.contains(70_000)).isFalse();
+        assertThat(bitmap.add(70_000)).isTrue();
+        assertThat(bitmap.page(0, 10)).containsExactly(5, 70_000, 140_000);
+    }
+
+    @Test
+    void intersectsArraysByMergeAndByGalloping() {
+        TreeSet<Integer> evens = new TreeSet<>();
+        TreeSet<Integer> thirds = new TreeSet<>();
+        TreeSet<Integer> sparse = new TreeSet<>();
+        for (int id = 0; id < 12_000; id++) {
+            if (id % 2 == 0 && evens.size() < 3000) {
+                evens.add(id);
+            }
+            if (id % 3 == 0 && thirds.size() < 3000) {
+                thirds.add(id);
+            }
+        }
+        for (int id = 0; id < 6000; id += 401) {
+            sparse.add(id);
+        }
+        // Similar sizes merge, a size ratio past 8 gallops through the larger side
+        assertIntersection(evens, thirds);
+        assertIntersection(sparse, evens);
+        assertIntersection(evens, sparse);
+        assertIntersection(sparse, new TreeSet<>(List.of(401 * 3, 401 * 5 + 1)));
+    }
+
+    @Test
+    void intersectsBitsetsWithArraysAndBitsets() {
+        TreeSet<Integer> dense = new TreeSet<>();
+        TreeSet<Integer> denseOdd = new TreeSet<>();
+        TreeSet<Integer> small = new TreeSet<>();
+        for (int id = 0; id < 60_000; id++) {
+            if (id % 5 != 0) {
+                dense.add(id);
+            }
+            if (id % 3 != 0) {
+                denseOdd.add(id);
+            }
+        }
+        for (int id = 7; id < 60_000; id += 997) {
+            small.add(id);
+        }
+        assertIntersection(dense, denseOdd);
+        assertIntersection(dense, small);
+        assertIntersection(small, dense);
+        // A sparse result of two bitsets comes back as an array chunk
+        TreeSet<Integer> lowHalf = new TreeSet<>(dense.headSet(10_000));
+        TreeSet<Integer> highHalf = new TreeSet<>(denseOdd.tailSet(9000));
+        assertThat(container(from(lowHalf), 0)).isInstanceOf(long[].class);
+        assertThat(container(from(highHalf), 0)).isInstanceOf(long[].class);
+        MovieIdBitmap both = MovieIdBitmap.and(from(lowHalf), from(highHalf));
+        assertThat(container(both, 0)).isInstanceOf(char[].class);
+        assertIntersection(lowHalf, highHalf);
+    }
+
+    @Test
+    void pagesAcrossChunksAndContainerKinds() {
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int id = 65_530; id < 65_540; id++) {
+            expected.add(id);
+        }
+        for (int id = 131_072; id < 131_072 + 5000; id++) {
+            expected.add(id);
+        }
+        expected.add(1_000_000);
+        MovieIdBitmap bitmap = from(expected);
+        List<Integer> all = new ArrayList<>(expected);
+
+        for (int offset : new int[]{0, 3, 6, 9, 10, 15, 4999, 5009, 5010, 5011, 9000}) {
+            for (int limit : new int[]{0, 1, 4, 10, 6000}) {
+                List<Integer> page = new ArrayList<>();
+                for (int id : bitmap.page(offset, limit)) {
+                    page.add(id);
+                }
+                List<Integer> want = all.subList(Math.min(offset, all.size()), Math.min(all.size(), offset + limit));
+                assertThat(page).as("offset %d, limit %d", offset, limit).isEqualTo(want);
+            }
+        }
+        assertThat(bitmap.page(Integer.MAX_VALUE, 10)).isEmpty();
+    }
+
+    @Test
+    void pageRejectsNegativeOffsetOrLimit() {
+        MovieIdBitmap bitmap = bitmap(1, 2, 3);
+
+        assertThatThrownBy(() -> bitmap.page(-1_294_967_296, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> bitmap.page(0, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void matchesATreeSetUnderRandomOperations() {
+        Random random = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            // Clustered ids so chunks of every density show up
+            int range = 1 << (10 + random.nextInt(10));
+            MovieIdBitmap a = new MovieIdBitmap();
+            MovieIdBitmap b = new MovieIdBitmap();
+            TreeSet<Integer> sa = new TreeSet<>();
+            TreeSet<Integer> sb = new TreeSet<>();
+            for (int op = 0; op < 30_000; op++) {
+                int id = random.nextInt(range) + (random.nextBoolean() ? 0 : 200_000);
+                boolean toA = random.nextBoolean();
+                if (random.nextInt(4) == 0) {
+                    assertThat((toA ? a : b).remove(id)).isEqualTo((toA ? sa : sb).remove(id));
+                } else {
+                    assertThat((toA ? a : b).add(id)).isEqualTo((toA ? sa : sb).add(id));
+                }
+            }
+            assertSame(a, sa);
+            assertSame(b, sb);
+
+            TreeSet<Integer> and = new TreeSet<>(sa);
+            and.retainAll(sb);
+            TreeSet<Integer> or = new TreeSet<>(sa);
+            or.addAll(sb);
+            assertSame(MovieIdBitmap.and(a, b), and);
+            assertThat(MovieIdBitmap.andCardinality(a, b)).isEqualTo(and.size());
+            assertSame(MovieIdBitmap.or(a, b), or);
+
+            // Results are independent of their inputs
+            MovieIdBitmap copy = a.copy();
+            copy.add(range + 500_000);
+            assertThat(a.contains(range + 500_000)).isFalse();
+            assertSame(a, sa);
+        }
+    }
+
+    private static void assertIntersection(TreeSet<Integer> x, TreeSet<Integer> y) {
+        TreeSet<Integer> expected = new TreeSet<>(x);
+        expected.retainAll(y);
+        assertSame(MovieIdBitmap.and(from(x), from(y)), expected);
+        assertThat(MovieIdBitmap.andCardinality(from(x), from(y))).isEqualTo(expected.size());
+    }
+
+    private static void assertSame(MovieIdBitmap bitmap, TreeSet<Integer> expected) {
+        assertThat(bitmap.cardinality()).isEqualTo(expected.size());
+        List<Integer> ids = new ArrayList<>();
+        bitmap.forEach(ids::add);
+        assertThat(ids).containsExactlyElementsOf(expected);
+        for (int id : expected) {
+            assertThat(bitmap.contains(id)).isTrue();
+        }
+    }
+
+    private static MovieIdBitmap from(TreeSet<Integer> ids) {
+        MovieIdBitmap bitmap = new MovieIdBitmap();
+        ids.forEach(bitmap::add);
+        return bitmap;
+    }
+
+    private static MovieIdBitmap bitmap(int... ids) {
+        MovieIdBitmap bitmap = new MovieIdBitmap();
+        for (int id : ids) {
+            bitmap.add(id);
+        }
+        return bitmap;
+    }
+
+    private static Object container(MovieIdBitmap bitmap, int chunk) {
+        return ((Object[]) ReflectionTestUtils.getField(bitmap, "containers"))[chunk];
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.moviecatalog.service;
+
+import com.example.moviecatalog.model.OmdbResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MovieImportReaderTest {
+
+    @Test
+    void quotedCommaDoesNotShiftTheImdbIdColumn() throws IOException {
+        List<String> ids = readIds("""
+                title,imdbID,year
+                "Crouching Tiger, Hidden Dragon",tt0190332,2000
+                "The Good, the Bad and the Ugly",tt0060196,1966
+                Heat,tt0113277,1995
+                """);
+
+        assertThat(ids).containsExactly("tt0190332", "tt0060196", "tt0113277");
+    }
+
+    @Test
+    void escapedQuotesAndQuotedHeaderAreUnderstood() throws IOException {
+        List<String> ids = readIds("""
+                "Title","IMDB ID"
+                "The ""Burbs"", sort of",tt0096734
+                """);
+
+        assertThat(ids).containsExactly("tt0096734");
+    }
+
+    @Test
+    void firstColumnIsUsedWithoutAHeader() throws IOException {
+        MovieImportReader reader = new MovieImportReader(new ObjectMapper().reader(), 10);
+        List<String> ids = new ArrayList<>();
+        reader.read(new BufferedReader(new StringReader("tt0000001\n\"tt0000002\",x\nnot-an-id\n")),
+                ids::addAll, records -> { });
+
+        assertThat(ids).containsExactly("tt0000001", "tt0000002");
+        assertThat(reader.getInvalid()).isEqualTo(1);
+        assertThat(reader.getInvalidLines()).containsExactly(3L);
+    }
+
+    @Test
+    void splitsCsvRows() {
+        assertThat(MovieImportReader.splitCsv("a, \"b,c\" ,\"d\"\"e\",")).containsExactly("a", "b,c", "d\"e", "");
+        assertThat(MovieImportReader.splitCsv("tt1")).containsExactly("tt1");
+    }
+
+    @Test
+    void mixesCsvAndNdjsonLinesInChunks() throws IOException {
+        MovieImportReader reader = new MovieImportReader(new ObjectMapper().reader(), 2);
+        List<List<String>> idChunks = new ArrayList<>();
+        List<OmdbResponse> records = new ArrayList<>();
+        reader.read(new BufferedReader(new StringReader("""
+                tt0000001
+                {"imdbID":"tt0000002","Title":"Two","Response":"True"}
+                tt0000003
+                tt0000004
+                """)), idChunks::add, records::addAll);
+
+        assertThat(idChunks).containsExactly(List.of("tt0000001", "tt0000003"), List.of("tt0000004"));
+        assertThat(records).extracting(OmdbResponse::getImdbId).containsExactly("tt0000002");
+    }
+
+    private static List<String> readIds(String csv) throws IOException {
+        List<String> ids = new ArrayList<>();
+        MovieImportReader reader = new MovieImportReader(new ObjectMapper().reader(), 10);
+        reader.read(new BufferedReader(new StringReader(csv)), ids::addAll, records -> { });
+        assertThat(reader.getInvalid()).isZero();
+        return ids;
+    }
+}
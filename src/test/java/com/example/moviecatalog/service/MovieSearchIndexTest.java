@@ -0,0 +1,135 @@
+package com.example.moviecatalog.service;
+
+import com.example.moviecatalog.model.Movie;
+import com.example.moviecatalog.model.MovieSearchHit;
+import com.example.moviecatalog.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MovieSearchIndexTest {
+
+    private static final List<Movie> CATALOG = List.of(
+            movie(1, "Alien", "Ridley Scott", "Sigourney Weaver, Tom Skerritt", "Horror, Sci-Fi"),
+            movie(2, "Aliens", "James Cameron", "Sigourney Weaver, Michael Biehn", "Action, Sci-Fi"),
+            movie(3, "Blade Runner", "Ridley Scott", "Harrison Ford, Rutger Hauer", "Sci-Fi, Thriller"),
+            movie(4, "Gladiator", "Ridley Scott", "Russell Crowe", "Action, Drama"),
+            movie(5, "Heat", "Michael Mann", "Al Pacino, Robert De Niro", "Crime, Drama"),
+            movie(6, "Crime Story", "Abel Ferrara", "Dennis Farina", "Drama"));
+
+    private MovieRepository movieRepository;
+    private MovieSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        movieRepository = mock(MovieRepository.class);
+        when(movieRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any())).thenAnswer(inv -> {
+            long lastId = inv.getArgument(0);
+            return CATALOG.stream().filter(movie -> movie.getId() > lastId).limit(2).collect(Collectors.toList());
+        });
+        index = new MovieSearchIndex(movieRepository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "buildPageSize", 2);
+        ReflectionTestUtils.setField(index, "maxResults", 100);
+    }
+
+    @Test
+    void andMatchesMoviesWithEveryTerm() {
+        index.rebuild();
+
+        assertThat(ids(index.search("ridley scott", true, 10))).containsExactlyInAnyOrder(1L, 3L, 4L);
+        assertThat(ids(index.search("Ridley Scott drama", true, 10))).containsExactly(4L);
+        assertThat(ids(index.search("ridley heat", true, 10))).isEmpty();
+        // A term no movie has means nothing can match all of them
+        assertThat(index.search("ridley nosuchterm", true, 10).get("total")).isEqualTo(0);
+    }
+
+    @Test
+    void orMatchesMoviesWithAnyTerm() {
+        index.rebuild();
+
+        assertThat(ids(index.search("alien heat nosuchterm", false, 10))).containsExactlyInAnyOrder(1L, 5L);
+        assertThat(index.search("weaver crowe", false, 10).get("total")).isEqualTo(3);
+    }
+
+    @Test
+    void ranksTitleMatchesAndShorterMoviesFirst() {
+        index.rebuild();
+
+        // "Crime" in a title weighs three times a genre mention
+        assertThat(ids(index.search("crime", false, 10))).containsExactly(6L, 5L);
+        // Same single genre mention: the movie with fewer indexed terms scores higher
+        assertThat(ids(index.search("drama", false, 10))).containsExactly(4L, 6L, 5L);
+        // Matching both terms beats matching one
+        List<Long> both = ids(index.search("sci weaver", false, 10));
+        assertThat(both.subList(0, 2)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(both).endsWith(3L);
+    }
+
+    @Test
+    void limitKeepsTheBestHitsButCountsAll() {
+        index.rebuild();
+
+        Map<String, Object> result = index.search("drama", false, 2);
+        assertThat(ids(result)).containsExactly(4L, 6L);
+        assertThat(result.get("total")).isEqualTo(3);
+    }
+
+    @Test
+    void addAndRemoveAreSearchableRightAway() {
+        index.rebuild();
+
+        index.add(movie(7, "Alien Resurrection", "Jean-Pierre Jeunet", "Sigourney Weaver", "Sci-Fi"));
+        index.remove(1L);
+
+        assertThat(ids(index.search("alien", false, 10))).containsExactly(7L);
+        assertThat(ids(index.search("ridley", false, 10))).containsExactlyInAnyOrder(3L, 4L);
+    }
+
+    @Test
+    void changesMadeWhileRebuildingAreReplayedOntoTheNewIndex() {
+        // Between the first and second page load, a movie is added and an already loaded one removed
+        when(movieRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), any())).thenAnswer(inv -> {
+            index.add(movie(7, "Alien Resurrection", "Jean-Pierre Jeunet", "Sigourney Weaver", "Sci-Fi"));
+            index.remove(1L);
+            return CATALOG.subList(2, 4);
+        });
+
+        index.rebuild();
+
+        assertThat(ids(index.search("alien", false, 10))).containsExactly(7L);
+        assertThat(ids(index.search("weaver", false, 10))).containsExactlyInAnyOrder(2L, 7L);
+        assertThat(index.getStats().get("movies")).isEqualTo(6);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Long> ids(Map<String, Object> result) {
+        return ((List<MovieSearchHit>) result.get("hits")).stream()
+                .map(MovieSearchHit::getMovieId)
+                .collect(Collectors.toList());
+    }
+
+    private static Movie movie(long id, String title, String director, String actors, String genre) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setImdbId(String.format("tt%07d", id));
+        movie.setTitle(title);
+        movie.setDirector(director);
+        movie.setActors(actors);
+        movie.setGenre(genre);
+        movie.setLanguage("English");
+        movie.setCountry("United States");
+        return movie;
+    }
+}
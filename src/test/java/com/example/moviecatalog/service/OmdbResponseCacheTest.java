@@ -0,0 +1,51 @@
+package com.example.moviecatalog.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OmdbResponseCacheTest {
+
+    private OmdbResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new OmdbResponseCache();
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 3600L);
+        ReflectionTestUtils.setField(cache, "negativeTtlSeconds", 300L);
+    }
+
+    @Test
+    void valueIsFreshUntilItsTtlHasPassed() {
+        long now = System.currentTimeMillis();
+
+        assertThat(cache.isFresh(now - 1000L * 1800)).isTrue();
+        assertThat(cache.isFresh(now - 1000L * 7200)).isFalse();
+    }
+
+    @Test
+    void expiredValueIsOnlyServedStale() {
+        // Already expired when cached
+        ReflectionTestUtils.setField(cache, "ttlSeconds", -1L);
+        cache.put("i:tt1", "value");
+
+        assertThat(cache.get("i:tt1")).isNull();
+        assertThat(cache.getStale("i:tt1")).isEqualTo("value");
+    }
+
+    @Test
+    void expiryIsCountedOncePerEntry() {
+        ReflectionTestUtils.setField(cache, "ttlSeconds", -1L);
+        cache.put("i:tt1", "value");
+
+        cache.get("i:tt1");
+        cache.get("i:tt1");
+        cache.get("i:tt1");
+
+        assertThat(cache.getStats().get("expirations")).isEqualTo(1L);
+        assertThat(cache.getStats().get("misses")).isEqualTo(3L);
+    }
+}
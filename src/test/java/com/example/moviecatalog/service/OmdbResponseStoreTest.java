@@ -0,0 +1,169 @@
+package com.example.moviecatalog.service;
+
+import com.example.moviecatalog.model.OmdbResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OmdbResponseStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private OmdbResponseStore store;
+
+    @AfterEach
+    void tearDown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void reopenRestoresLatestRecordPerKey() {
+        store = open(168);
+        store.put("i:tt1", movie("tt1", "First"));
+        store.put("i:tt2", movie("tt2", "Second"));
+        store.put("i:tt1", movie("tt1", "First, revised"));
+        store.close();
+
+        store = open(168);
+        assertThat(store.get("i:tt1", OmdbResponse.class).getValue().getTitle()).isEqualTo("First, revised");
+        assertThat(store.get("i:tt2", OmdbResponse.class).getValue().getTitle()).isEqualTo("Second");
+        assertThat(store.get("i:tt3", OmdbResponse.class)).isNull();
+    }
+
+    @Test
+    void tornTailIsCutOffOnOpen() throws IOException {
+        store = open(168);
+        store.put("i:tt1", movie("tt1", "First"));
+        store.put("i:tt2", movie("tt2", "Second"));
+        store.close();
+        long intact = Files.size(logFile());
+
+        // A crash mid-append leaves a header promising more bytes than were written
+        Files.write(logFile(), new byte[]{0, 0, 1, 0, 7, 7, 7, 7, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        store = open(168);
+        assertThat(Files.size(logFile())).isEqualTo(intact);
+        assertThat(store.get("i:tt1", OmdbResponse.class).getValue().getTitle()).isEqualTo("First");
+        assertThat(store.get("i:tt2", OmdbResponse.class).getValue().getTitle()).isEqualTo("Second");
+
+        // Appends continue right after the last good record
+        store.put("i:tt3", movie("tt3", "Third"));
+        store.close();
+        store = open(168);
+        assertThat(store.get("i:tt3", OmdbResponse.class).getValue().getTitle()).isEqualTo("Third");
+    }
+
+    @Test
+    void corruptRecordStopsLoadingAtThatRecord() throws IOException {
+        store = open(168);
+        store.put("i:tt1", movie("tt1", "First"));
+        store.close();
+        long firstEnd = Files.size(logFile());
+        store = open(168);
+        store.put("i:tt2", movie("tt2", "Second"));
+        store.close();
+
+        // Flip a payload byte of the second record so its CRC no longer matches
+        byte[] bytes = Files.readAllBytes(logFile());
+        bytes[bytes.length - 2] ^= 0x55;
+        Files.write(logFile(), bytes);
+
+        store = open(168);
+        assertThat(Files.size(logFile())).isEqualTo(firstEnd);
+        assertThat(store.get("i:tt1", OmdbResponse.class)).isNotNull();
+        assertThat(store.get("i:tt2", OmdbResponse.class)).isNull();
+    }
+
+    @Test
+    void compactsOnceSupersededRecordsPassTheGarbageRatio() throws IOException {
+        store = open(168);
+        for (int i = 0; i < 10; i++) {
+            store.put("i:tt1", movie("tt1", "Version " + i));
+        }
+        store.put("i:tt2", movie("tt2", "Second"));
+        long before = Files.size(logFile());
+
+        store.compactIfNeeded();
+
+        assertThat(Files.size(logFile())).isLessThan(before);
+        assertThat(store.getStats().get("compactions")).isEqualTo(1L);
+        assertThat(store.getStats().get("fileBytes")).isEqualTo(store.getStats().get("liveBytes"));
+        assertThat(store.get("i:tt1", OmdbResponse.class).getValue().getTitle()).isEqualTo("Version 9");
+        assertThat(store.get("i:tt2", OmdbResponse.class).getValue().getTitle()).isEqualTo("Second");
+    }
+
+    @Test
+    void leavesTheFileAloneBelowTheGarbageRatio() throws IOException {
+        store = open(168);
+        for (int i = 0; i < 10; i++) {
+            store.put("i:tt" + i, movie("tt" + i, "Movie " + i));
+        }
+        store.put("i:tt0", movie("tt0", "Movie 0, revised"));
+        long before = Files.size(logFile());
+
+        store.compactIfNeeded();
+
+        assertThat(Files.size(logFile())).isEqualTo(before);
+        assertThat(store.getStats().get("compactions")).isEqualTo(0L);
+    }
+
+    @Test
+    void expiredRecordsAreSkippedAndDroppedByCompaction() throws Exception {
+        store = open(0);
+        store.put("i:tt1", movie("tt1", "First"));
+        store.put("i:tt2", movie("tt2", "Second"));
+        Thread.sleep(5);
+
+        assertThat(store.get("i:tt1", OmdbResponse.class)).isNull();
+        store.compactIfNeeded();
+
+        assertThat(store.getStats().get("compactions")).isEqualTo(1L);
+        assertThat(store.getStats().get("entries")).isEqualTo(0);
+        assertThat(Files.size(logFile())).isZero();
+    }
+
+    @Test
+    void returnsWhenTheValueWasWritten() {
+        store = open(168);
+        long before = System.currentTimeMillis();
+        store.put("i:tt1", movie("tt1", "First"));
+
+        assertThat(store.get("i:tt1", OmdbResponse.class).getWrittenAt())
+                .isBetween(before, System.currentTimeMillis());
+    }
+
+    private OmdbResponseStore open(long maxAgeHours) {
+        OmdbResponseStore opened = new OmdbResponseStore(new ObjectMapper());
+        ReflectionTestUtils.setField(opened, "enabled", true);
+        ReflectionTestUtils.setField(opened, "dir", dir.toString());
+        ReflectionTestUtils.setField(opened, "maxAgeHours", maxAgeHours);
+        ReflectionTestUtils.setField(opened, "compactGarbageRatio", 0.5);
+        ReflectionTestUtils.setField(opened, "compactMinBytes", 0L);
+        opened.open();
+        return opened;
+    }
+
+    private Path logFile() {
+        return dir.resolve("omdb-responses.log");
+    }
+
+    private static OmdbResponse movie(String imdbId, String title) {
+        OmdbResponse response = new OmdbResponse();
+        response.setImdbId(imdbId);
+        response.setTitle(title);
+        response.setResponse("True");
+        return response;
+    }
+}
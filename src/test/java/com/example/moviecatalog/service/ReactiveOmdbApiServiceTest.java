@@ -0,0 +1,86 @@
+package com.example.moviecatalog.service;
+
+import com.example.moviecatalog.model.OmdbResponse;
+import com.example.moviecatalog.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReactiveOmdbApiServiceTest {
+
+    private OmdbClient omdbClient;
+    private OmdbResponseStore responseStore;
+    private OmdbCircuitBreaker circuitBreaker;
+    private ReactiveOmdbApiService service;
+
+    @BeforeEach
+    void setUp() {
+        omdbClient = mock(OmdbClient.class);
+        responseStore = mock(OmdbResponseStore.class);
+        circuitBreaker = mock(OmdbCircuitBreaker.class);
+        when(circuitBreaker.getState()).thenReturn(OmdbCircuitBreaker.State.CLOSED);
+        OmdbResponseCache responseCache = new OmdbResponseCache();
+        ReflectionTestUtils.setField(responseCache, "maxEntries", 100);
+        ReflectionTestUtils.setField(responseCache, "ttlSeconds", 3600L);
+        ReflectionTestUtils.setField(responseCache, "negativeTtlSeconds", 300L);
+        service = new ReactiveOmdbApiService(omdbClient, responseCache, new OmdbRequestCoalescer(), circuitBreaker,
+                mock(MovieRepository.class), responseStore);
+    }
+
+    @Test
+    void storeHitWithinTheTtlIsServedWithoutRevalidation() {
+        stored("i:tt1", movie("tt1", "Heat"), System.currentTimeMillis() - 1000L * 1800);
+
+        assertThat(service.getMovieDetails("tt1").block().getTitle()).isEqualTo("Heat");
+
+        assertThat(service.getPendingRevalidationCount()).isZero();
+        verify(omdbClient, never()).details(anyString(), any());
+    }
+
+    @Test
+    void storeHitPastTheTtlIsServedAndRefreshedInTheBackground() {
+        // Two days old: past the cache TTL, within the store's max age
+        stored("i:tt1", movie("tt1", "Heat"), System.currentTimeMillis() - 1000L * 3600 * 48);
+        when(omdbClient.details("tt1", OmdbRateLimiter.Priority.BACKGROUND))
+                .thenReturn(Mono.just(movie("tt1", "Heat (Remastered)")));
+
+        assertThat(service.getMovieDetails("tt1").block().getTitle()).isEqualTo("Heat");
+        // Served again from the cache, not the store or OMDB
+        assertThat(service.getMovieDetails("tt1").block().getTitle()).isEqualTo("Heat");
+        verify(omdbClient, never()).details(anyString(), eq(OmdbRateLimiter.Priority.DETAILS));
+        verify(responseStore).get("i:tt1", OmdbResponse.class);
+        assertThat(service.getPendingRevalidationCount()).isEqualTo(1);
+
+        service.revalidateStaleEntries();
+
+        verify(omdbClient).details("tt1", OmdbRateLimiter.Priority.BACKGROUND);
+        assertThat(service.getPendingRevalidationCount()).isZero();
+        assertThat(service.getMovieDetails("tt1").block().getTitle()).isEqualTo("Heat (Remastered)");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stored(String key, OmdbResponse value, long writtenAt) {
+        OmdbResponseStore.Stored<OmdbResponse> stored = mock(OmdbResponseStore.Stored.class);
+        when(stored.getValue()).thenReturn(value);
+        when(stored.getWrittenAt()).thenReturn(writtenAt);
+        when(responseStore.get(key, OmdbResponse.class)).thenReturn(stored);
+    }
+
+    private static OmdbResponse movie(String imdbId, String title) {
+        OmdbResponse response = new OmdbResponse();
+        response.setImdbId(imdbId);
+        response.setTitle(title);
+        response.setResponse("True");
+        return response;
+    }
+}